@@ -3,11 +3,11 @@ package com.feedfusion2;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 // Import the annotation
-import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
 
 @SpringBootApplication
 // Add this annotation and specify the package containing your repositories
-@EnableMongoRepositories(basePackages = "com.feedfusion2.repository")
+@EnableReactiveMongoRepositories(basePackages = "com.feedfusion2.repository")
 public class Feedfusion2Application {
 
     public static void main(String[] args) {
@@ -0,0 +1,44 @@
+package com.feedfusion2.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.feedfusion2.service.FeedPostJsonCache;
+import com.feedfusion2.util.BinaryJackson2Encoder;
+import com.feedfusion2.util.FeedPostJsonEncoder;
+import com.feedfusion2.util.Representations;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+@Configuration
+public class CodecConfig {
+
+    // Custom FeedPost encoder, consulted before the default Jackson encoder
+    @Bean
+    public CodecCustomizer feedPostJsonCodecCustomizer(FeedPostJsonCache feedPostJsonCache) {
+        return configurer -> configurer.customCodecs().register(new FeedPostJsonEncoder(feedPostJsonCache));
+    }
+
+    // Binary representations of the same payloads for clients that send Accept: application/cbor
+    // or application/x-jackson-smile; the mappers get the same modules and features as the JSON one
+    @Bean
+    public CodecCustomizer binaryCodecCustomizer(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+        objectMapperBuilder.configure(cborMapper);
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        objectMapperBuilder.configure(smileMapper);
+        MediaType smile = Representations.SMILE;
+        return configurer -> {
+            configurer.customCodecs().register(new BinaryJackson2Encoder(cborMapper, MediaType.APPLICATION_CBOR));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+            // Registered as custom codecs so they run before Spring's default Smile codecs
+            configurer.customCodecs().register(new BinaryJackson2Encoder(smileMapper, smile));
+            configurer.customCodecs().register(new Jackson2SmileDecoder(smileMapper, smile));
+        };
+    }
+}
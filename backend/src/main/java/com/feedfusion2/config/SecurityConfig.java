@@ -1,6 +1,7 @@
 package com.feedfusion2.config; // Ensure package name is correct
 
 // Imports...
+import com.feedfusion2.service.PasswordHashing;
 import com.feedfusion2.util.JwtAuthenticationWebFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -50,17 +51,18 @@ public class SecurityConfig {
     }
 
     @Bean
-    public ReactiveAuthenticationManager reactiveAuthenticationManager(PasswordEncoder passwordEncoder) {
+    public ReactiveAuthenticationManager reactiveAuthenticationManager(PasswordEncoder passwordEncoder, PasswordHashing passwordHashing) {
         var authenticationManager = new UserDetailsRepositoryReactiveAuthenticationManager(this.reactiveUserDetailsService);
         authenticationManager.setPasswordEncoder(passwordEncoder);
+        authenticationManager.setScheduler(passwordHashing.scheduler()); // BCrypt checks stay on the bounded hashing pool
         logger.info("ReactiveAuthenticationManager bean created.");
         return authenticationManager;
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        logger.info("PasswordEncoder bean created.");
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:10}") int strength) {
+        logger.info("PasswordEncoder bean created (BCrypt strength {}).", strength);
+        return new BCryptPasswordEncoder(strength); // Existing hashes keep verifying, each carries its own cost
     }
 
     @Bean
@@ -69,7 +71,8 @@ public class SecurityConfig {
         logger.debug("Configuring CORS for origins: {}", allowedOrigins);
         configuration.setAllowedOrigins(Arrays.asList(allowedOrigins.split(",")));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Cache-Control", "Content-Type", "X-Requested-With", "Accept"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Cache-Control", "Content-Type", "X-Requested-With", "Accept", "If-None-Match"));
+        configuration.setExposedHeaders(Arrays.asList("X-Next-Cursor", "ETag")); // Feed paging token and conditional GET, read by the frontend
         configuration.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -100,6 +103,7 @@ public class SecurityConfig {
                         // --- V V V Explicitly protect bookmark and feed endpoints V V V ---
                         .pathMatchers("/api/feed/**").authenticated()
                         .pathMatchers("/api/bookmarks/**").authenticated()
+                        .pathMatchers("/api/trending/**").authenticated()
                         // --- ^ ^ ^ End explicit protection ^ ^ ^ ---
                         .anyExchange().authenticated() // Secure all others (can be kept as a fallback)
                 )
@@ -1,17 +1,23 @@
 package com.feedfusion2.config; // Adjust package if needed
 
 import com.feedfusion2.service.RedditAuthService;
+import io.netty.channel.ChannelOption;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
 
 @Configuration
 public class WebClientConfig {
@@ -31,6 +37,17 @@ public class WebClientConfig {
         this.redditAuthService = redditAuthService;
     }
 
+    // Connect and response timeouts for every WebClient built from the shared builder (Reddit, YouTube, Reddit auth).
+    // Static so the builder can be customized before this configuration (which needs RedditAuthService) exists.
+    @Bean
+    public static WebClientCustomizer upstreamTimeouts(@Value("${feed.ingest.upstream.connect-timeout:PT5S}") Duration connectTimeout,
+                                                       @Value("${feed.ingest.upstream.response-timeout:PT15S}") Duration responseTimeout) {
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+        return builder -> builder.clientConnector(new ReactorClientHttpConnector(httpClient));
+    }
+
     @Bean
     @Qualifier("redditWebClient") // Qualify this specific client
     public WebClient redditWebClient(WebClient.Builder builder) {
@@ -1,24 +1,76 @@
-//package com.feedfusion2.controller;
-//
-//import com.feedfusion2.dto.LoginRequest;
-//import org.springframework.http.HttpStatus;
-//import org.springframework.http.ResponseEntity;
-//import org.springframework.web.bind.annotation.PostMapping;
-//import org.springframework.web.bind.annotation.RequestBody;
-//import org.springframework.web.bind.annotation.RequestMapping;
-//import org.springframework.web.bind.annotation.RestController;
-//
-//@RestController
-//@RequestMapping("/api/auth")
-//public class AuthController {
-//
-//    @PostMapping("/login")
-//    public ResponseEntity<String> login(@RequestBody LoginRequest request) {
-//        // Replace this with actual authentication logic
-//        if ("admin".equals(request.getUsername()) && "password".equals(request.getPassword())) {
-//            return ResponseEntity.ok("Login successful");
-//        } else {
-//            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
-//        }
-//    }
-//}
+package com.feedfusion2.controller;
+
+import com.feedfusion2.dto.LoginRequest;
+import com.feedfusion2.dto.MessageResponse;
+import com.feedfusion2.dto.SignupRequest;
+import com.feedfusion2.service.AuthService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/auth")
+public class AuthController {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
+    private final AuthService authService;
+
+    @Autowired
+    public AuthController(AuthService authService) {
+        this.authService = authService;
+    }
+
+    /**
+     * Checks the credentials and returns a JWT with the user's details.
+     *
+     * @return A Mono containing a ResponseEntity with an AuthResponse; 401 on bad credentials,
+     *         503 with Retry-After if password hashing is saturated.
+     */
+    @PostMapping("/login")
+    public Mono<ResponseEntity<Object>> login(@Valid @RequestBody LoginRequest request) {
+        return authService.login(request)
+                .map(response -> ResponseEntity.ok().<Object>body(response))
+                .onErrorResume(BadCredentialsException.class, e -> {
+                    log.debug("Failed login for '{}'.", request.getUsername());
+                    return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new MessageResponse("Error: Invalid username or password")));
+                })
+                .onErrorResume(RejectedExecutionException.class, e -> Mono.just(busy()));
+    }
+
+    /**
+     * Registers a new user.
+     *
+     * @return A Mono containing a ResponseEntity with a MessageResponse; 400 if the username or
+     *         email is taken, 503 with Retry-After if password hashing is saturated.
+     */
+    @PostMapping("/register")
+    public Mono<ResponseEntity<Object>> register(@Valid @RequestBody SignupRequest request) {
+        return authService.registerUser(request)
+                .map(user -> {
+                    log.info("Registered user '{}'.", user.getUsername());
+                    return ResponseEntity.ok().<Object>body(new MessageResponse("User registered successfully!"));
+                })
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()))))
+                .onErrorResume(RejectedExecutionException.class, e -> Mono.just(busy()));
+    }
+
+    // Hashing queue full: shed the request right away instead of letting it wait
+    private static ResponseEntity<Object> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new MessageResponse("Error: Too many sign-in requests, please retry shortly"));
+    }
+}
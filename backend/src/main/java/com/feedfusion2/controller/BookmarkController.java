@@ -1,16 +1,22 @@
 package com.feedfusion2.controller; // Ensure package is correct
 
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import com.feedfusion2.dto.FeedView;
 import com.feedfusion2.dto.MessageResponse; // Assuming you have this DTO
 import com.feedfusion2.model.FeedPost;
 import com.feedfusion2.model.User; // Import User model if needed for ID extraction
 import com.feedfusion2.repository.UserRepository; // Import UserRepository
 import com.feedfusion2.service.BookmarkService;
+import com.feedfusion2.util.JwtUserPrincipal;
+import com.feedfusion2.util.Representations;
 // Removed UserDetailsServiceImpl import as it's not directly used here
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize; // For securing endpoints
 import org.springframework.security.core.Authentication;
@@ -18,12 +24,10 @@ import org.springframework.security.core.context.ReactiveSecurityContextHolder;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-// --- V V V Add these imports V V V ---
-import reactor.core.scheduler.Schedulers; // For scheduling blocking calls
 import java.util.Collections; // For Collections.emptySet()
-// --- ^ ^ ^ End of added imports ^ ^ ^ ---
 
 import java.security.Principal; // Can also use Principal
 import java.util.List;
@@ -34,6 +38,8 @@ import java.util.Set;
 public class BookmarkController {
 
     private static final Logger log = LoggerFactory.getLogger(BookmarkController.class);
+    // Private to the user, always revalidated with If-None-Match (replaces Spring Security's no-store)
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
 
     private final BookmarkService bookmarkService;
     private final UserRepository userRepository; // Inject UserRepository to get User ID
@@ -47,6 +53,7 @@ public class BookmarkController {
 
     /**
      * Helper method to get the current authenticated user's ID reactively.
+     * Taken from the JWT claims; only tokens issued without them need the user lookup.
      * @return Mono containing the user ID, or Mono.error if not authenticated or user not found.
      */
     private Mono<String> getCurrentUserId() {
@@ -57,19 +64,18 @@ public class BookmarkController {
                         log.warn("User not authenticated in security context.");
                         return Mono.error(new IllegalStateException("User not authenticated"));
                     }
+                    if (authentication.getPrincipal() instanceof JwtUserPrincipal principal) {
+                        return Mono.just(principal.getId()); // ID from the token's claims, no database read
+                    }
                     String username = ((UserDetails) authentication.getPrincipal()).getUsername();
                     log.debug("Authenticated username: {}", username);
-                    // Find user ID based on username (blocking call needs adaptation)
-                    return Mono.fromCallable(() -> {
-                                log.debug("Looking up user ID for username: {}", username);
-                                return userRepository.findByUsername(username)
-                                        .map(User::getId) // Extract ID from User object
-                                        .orElseThrow(() -> {
-                                            log.warn("Authenticated user '{}' not found in database.", username);
-                                            return new IllegalStateException("Authenticated user not found in database");
-                                        });
-                            })
-                            .subscribeOn(Schedulers.boundedElastic()); // Schedule blocking call
+                    // Find user ID based on username
+                    return userRepository.findByUsername(username)
+                            .map(User::getId) // Extract ID from User object
+                            .switchIfEmpty(Mono.error(() -> {
+                                log.warn("Authenticated user '{}' not found in database.", username);
+                                return new IllegalStateException("Authenticated user not found in database");
+                            }));
                 })
                 .switchIfEmpty(Mono.error(new IllegalStateException("Authentication context is empty"))); // Handle empty context case
     }
@@ -132,30 +138,53 @@ public class BookmarkController {
 
     /**
      * Gets all bookmarked FeedPost objects for the authenticated user.
-     * @return Flux<FeedPost>
+     * Answers 304 without loading the posts if the client's ETag is still current.
+     * @param view Representation of each post: card (default), summary or full.
+     * @param fields Comma-separated fields to return instead of a view.
+     * @param exchange Current exchange, for the If-None-Match check.
+     * @return Mono<ResponseEntity<Flux<FeedPost>>>; 400 on an unknown view or field.
      */
     @GetMapping
     @PreAuthorize("isAuthenticated()") // Ensure user is logged in
-    public Flux<FeedPost> getBookmarks() {
-        // Use flatMapMany to switch from Mono<String> (userId) to Flux<FeedPost>
+    public Mono<ResponseEntity<Flux<FeedPost>>> getBookmarks(@RequestParam(required = false) String view,
+                                                             @RequestParam(required = false) String fields,
+                                                             ServerWebExchange exchange) {
+        List<String> projection;
+        try {
+            projection = FeedView.resolve(view, fields);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(ResponseEntity.badRequest().<Flux<FeedPost>>build());
+        }
+        MediaType representation = Representations.negotiate(exchange.getRequest().getHeaders());
         return getCurrentUserId()
                 .doOnNext(userId -> log.info("Fetching bookmarks for user {}", userId))
-                .flatMapMany(bookmarkService::getBookmarkedPosts) // Use method reference
+                .flatMap(userId -> bookmarkService.getBookmarkedPostsETag(userId, projection, representation)
+                        .map(eTag -> exchange.checkNotModified(eTag)
+                                ? ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).<Flux<FeedPost>>build()
+                                : withRepresentation(ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).cacheControl(REVALIDATE), representation)
+                                        .body(bookmarkService.getBookmarkedPosts(userId, projection))))
                 .doOnError(e -> log.error("Error retrieving bookmarks stream: {}", e.getMessage()));
         // Errors during individual post fetching within the service are handled there
     }
 
     /**
      * Gets only the IDs of bookmarked posts for the authenticated user.
+     * Answers 304 without loading the IDs if the client's ETag is still current.
+     * @param exchange Current exchange, for the If-None-Match check.
      * @return Mono<ResponseEntity<Set<String>>>
      */
     @GetMapping("/ids")
     @PreAuthorize("isAuthenticated()") // Ensure user is logged in
-    public Mono<ResponseEntity<Set<String>>> getBookmarkIds() {
+    public Mono<ResponseEntity<Set<String>>> getBookmarkIds(ServerWebExchange exchange) {
+        MediaType representation = Representations.negotiate(exchange.getRequest().getHeaders());
         return getCurrentUserId()
                 .doOnNext(userId -> log.info("Fetching bookmark IDs for user {}", userId))
-                .flatMap(bookmarkService::getBookmarkedPostIds) // Use method reference
-                .map(ResponseEntity::ok) // Wrap the Set in ResponseEntity
+                .flatMap(userId -> bookmarkService.getBookmarkIdsETag(userId, representation)
+                        .flatMap(eTag -> exchange.checkNotModified(eTag)
+                                ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).<Set<String>>build())
+                                : bookmarkService.getBookmarkedPostIds(userId)
+                                        .map(ids -> withRepresentation(ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).cacheControl(REVALIDATE), representation)
+                                                .body(ids)))) // Wrap the Set in ResponseEntity
                 .onErrorResume(e -> {
                     log.error("Error retrieving bookmark IDs: {}", e.getMessage());
                     // Return empty set with appropriate status on error
@@ -163,6 +192,11 @@ public class BookmarkController {
                 });
     }
 
+    // Sends the negotiated type as the Content-Type, so the body is written in the representation the ETag names
+    private static ResponseEntity.BodyBuilder withRepresentation(ResponseEntity.BodyBuilder response, MediaType representation) {
+        return representation != null ? response.contentType(representation) : response;
+    }
+
     // --- Simple DTO for the POST request body ---
     // Can be a static inner class or a separate file in the dto package
     private static class BookmarkRequest {
@@ -47,23 +47,37 @@
 package com.feedfusion2.controller; // Ensure package name is correct
 
 // Import necessary classes
+import com.feedfusion2.dto.FeedRequest;
 import com.feedfusion2.model.FeedPost; // Assuming this is your DTO/Model for posts
 import com.feedfusion2.service.FeedService;
+import com.feedfusion2.util.Representations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.web.bind.annotation.*;
-import reactor.core.publisher.Flux; // FeedService likely returns Flux
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono; // Using Reactor
 
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/feed") // Base path for feed-related endpoints
 public class FeedController {
 
+    private static final Logger log = LoggerFactory.getLogger(FeedController.class);
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final FeedService feedService;
 
     @Autowired
@@ -74,39 +88,65 @@ public class FeedController {
     /**
      * Fetches the aggregated feed based on optional filters.
      *
-     * @param platform  Optional platform filter (e.g., "reddit", "youtube").
-     * @param keyword   Optional keyword filter for searching titles/descriptions.
-     * @param interests Optional comma-separated string of interests.
-     * @return A Mono containing a ResponseEntity with a list of FeedPost objects.
+     * @param request  Filters, paging, sort and view (see FeedRequest).
+     * @param exchange Current exchange, for the If-None-Match check.
+     * @return A Mono containing a ResponseEntity with one page of FeedPost objects; the
+     *         X-Next-Cursor header is set when another page follows. 304 without a body if the
+     *         client's ETag is still current.
      */
     @GetMapping // Handles GET requests to /api/feed
-    public Mono<ResponseEntity<List<FeedPost>>> getFeed(
-            @RequestParam(required = false) String platform,
-            @RequestParam(required = false) String keyword,
-            @RequestParam(required = false) String interests // Accept interests as comma-separated string
-    ) {
-        // Convert comma-separated interests string to a List<String>
-        // Handle null or empty string gracefully
-        List<String> interestList = (interests != null && !interests.trim().isEmpty())
-                ? Arrays.stream(interests.split(","))
-                .map(String::trim) // Trim whitespace from each interest
-                .filter(s -> !s.isEmpty()) // Filter out empty strings after split
-                .collect(Collectors.toList())
-                : Collections.emptyList(); // Use an empty list if no interests provided
-
+    public Mono<ResponseEntity<List<FeedPost>>> getFeed(FeedRequest request, ServerWebExchange exchange) {
         // Log the received parameters for debugging
-        System.out.printf("Received feed request with platform: %s, keyword: %s, interests: %s%n",
-                platform, keyword, interestList);
+        log.debug("Received feed request: {}", request);
+
+        // Call a single service method that handles all filtering and paging logic
+        return getCurrentUsername()
+                .flatMap(username -> {
+                    String user = username.isEmpty() ? null : username;
+                    MediaType representation = Representations.negotiate(exchange.getRequest().getHeaders());
+                    String eTag = feedService.getFeedETag(request, user, representation);
+                    if (exchange.checkNotModified(eTag)) {
+                        return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).<List<FeedPost>>build());
+                    }
+                    return feedService.getFeedPage(request, user)
+                            .map(page -> {
+                                ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT)
+                                        .cacheControl(CacheControl.noCache().cachePrivate()); // Revalidate with If-None-Match instead of no-store
+                                if (representation != null) {
+                                    response.contentType(representation); // The type the ETag was computed for
+                                }
+                                if (page.getNextCursor() != null) {
+                                    response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+                                }
+                                return response.body(page.getPosts());
+                            });
+                })
+                // Malformed or tampered cursor, unknown sort, view or field
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.just(ResponseEntity.badRequest().body(List.<FeedPost>of())))
+                // Return empty feed if the DB fetch fails, without an ETag so clients do not keep it
+                .onErrorResume(e -> Mono.just(ResponseEntity.ok(List.<FeedPost>of())));
+    }
 
-        // Call a single service method that handles all filtering logic
-        // Assuming getFilteredFeed returns Flux<FeedPost>
-        Flux<FeedPost> feedFlux = feedService.getFilteredFeed(platform, keyword, interestList);
+    /**
+     * Streaming variant of getFeed: posts are written one by one as Mongo returns them,
+     * as newline-delimited JSON or Server-Sent Events depending on the Accept header.
+     * Takes the same parameters as getFeed; to continue a stream, pass the cursor of a JSON page.
+     *
+     * @return A Flux of FeedPost objects, written with backpressure.
+     */
+    @GetMapping(value = "/stream", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<FeedPost> streamFeed(FeedRequest request) {
+        return feedService.streamFeed(request)
+                // Invalid parameters fail before the first post is written, so the status can still be 400
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()));
+    }
 
-        // Collect the Flux into a List and wrap in ResponseEntity inside a Mono
-        return feedFlux
-                .collectList() // Collect the Flux<FeedPost> from service into a Mono<List<FeedPost>>
-                .map(ResponseEntity::ok) // Wrap the list in ResponseEntity.ok()
-                .defaultIfEmpty(ResponseEntity.ok(List.of())); // Return OK with empty list if no posts found
+    // Username of the authenticated user, or an empty string (selects the user's timeline when enabled)
+    private Mono<String> getCurrentUsername() {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .map(Authentication::getName)
+                .defaultIfEmpty("");
     }
 
     // You can remove the old /by-interests and /search endpoints now
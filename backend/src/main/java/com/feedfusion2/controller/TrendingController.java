@@ -0,0 +1,35 @@
+package com.feedfusion2.controller;
+
+import com.feedfusion2.dto.TrendingTopic;
+import com.feedfusion2.service.TrendingTopics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/trending")
+public class TrendingController {
+
+    private final TrendingTopics trendingTopics;
+
+    @Autowired
+    public TrendingController(TrendingTopics trendingTopics) {
+        this.trendingTopics = trendingTopics;
+    }
+
+    /**
+     * Topics trending in recently ingested posts, read from memory.
+     *
+     * @param limit Number of topics (default 10).
+     * @return A Mono containing the topics, highest count first.
+     */
+    @GetMapping
+    public Mono<List<TrendingTopic>> getTrending(@RequestParam(defaultValue = "10") int limit) {
+        return Mono.just(trendingTopics.top(limit));
+    }
+}
@@ -0,0 +1,96 @@
+package com.feedfusion2.dto;
+
+import com.feedfusion2.model.FeedPost;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Keyset position in the feed: the (timestamp, id) of the last post on the previous page,
+ * whether that page came from the user's timeline (TimelineService), so the next one is read
+ * from the same source, and the duplicate clusters shown so far, so later pages skip them.
+ * Clients only ever see the opaque token produced by encode().
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedCursor {
+
+    // Feed order: newest first, like the Mongo sort (timestamp desc, _id desc).
+    // ObjectId hex strings have a fixed length, so string order is ObjectId order.
+    public static final Comparator<FeedCursor> FEED_ORDER =
+            Comparator.comparing(FeedCursor::getTimestamp).thenComparing(FeedCursor::getId).reversed();
+
+    // Clusters a cursor carries at most, so the token stays short enough for a query parameter
+    public static final int MAX_CLUSTERS = 50;
+    private static final Pattern CLUSTER_ID = Pattern.compile("[0-9a-f]{1,32}"); // MinHash.id
+
+    private Instant timestamp;
+    private String id;
+    private boolean timeline;
+    private List<String> clusters = List.of(); // Cluster IDs already shown, most recent last
+
+    public FeedCursor(Instant timestamp, String id) {
+        this(timestamp, id, false);
+    }
+
+    public FeedCursor(Instant timestamp, String id, boolean timeline) {
+        this(timestamp, id, timeline, List.of());
+    }
+
+    /**
+     * @return Position of the post in the feed order.
+     */
+    public static FeedCursor of(FeedPost post) {
+        return new FeedCursor(post.getTimestamp(), post.getId());
+    }
+
+    /**
+     * @return URL-safe token, e.g. for the X-Next-Cursor header.
+     */
+    public String encode() {
+        String raw = timestamp.toEpochMilli() + ":" + id + (timeline ? ":t" : "");
+        if (!clusters.isEmpty()) {
+            raw += (timeline ? ":" : "::") + String.join(",", clusters);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token Token produced by encode().
+     * @return The decoded cursor.
+     * @throws IllegalArgumentException if the token is malformed.
+     */
+    public static FeedCursor decode(String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid feed cursor");
+        }
+        // timestamp:id, then ":t" for a timeline cursor, then ":" and the clusters if any
+        String[] parts = raw.split(":", -1);
+        if (parts.length < 2 || parts.length > 4 || !ObjectId.isValid(parts[1])
+                || (parts.length >= 3 && !parts[2].equals("t") && !(parts.length == 4 && parts[2].isEmpty()))) {
+            throw new IllegalArgumentException("Invalid feed cursor");
+        }
+        List<String> clusters = parts.length == 4 ? List.of(parts[3].split(",", -1)) : List.of();
+        if (clusters.size() > MAX_CLUSTERS || !clusters.stream().allMatch(cluster -> CLUSTER_ID.matcher(cluster).matches())) {
+            throw new IllegalArgumentException("Invalid feed cursor");
+        }
+        try {
+            long epochMilli = Long.parseLong(parts[0]);
+            return new FeedCursor(Instant.ofEpochMilli(epochMilli), parts[1], parts.length >= 3 && parts[2].equals("t"), clusters);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid feed cursor");
+        }
+    }
+}
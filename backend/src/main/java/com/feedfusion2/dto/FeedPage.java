@@ -0,0 +1,20 @@
+package com.feedfusion2.dto;
+
+import com.feedfusion2.model.FeedPost;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of the feed plus the cursor of the next page (null on the last page).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedPage {
+
+    private List<FeedPost> posts;
+    private String nextCursor;
+}
@@ -0,0 +1,25 @@
+package com.feedfusion2.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Normalized feed query, evaluated by Mongo (filters, sort and limit are pushed down).
+ */
+@Data
+@NoArgsConstructor
+public class FeedQuery {
+
+    private String platform; // Lower-case platform, or null for all platforms
+    private List<String> interests; // Normalized interests, any of which a post must be tagged with (untagged posts, stored before tagging, match any), or null for every post
+    private Instant since; // Only posts with timestamp at or after this, or null
+    private Instant until; // Only posts with timestamp strictly before this, or null
+    private String keyword; // Trimmed keyword, or null for no keyword filter; words ending in '*' match as prefixes
+    private FeedSort sort = FeedSort.NEWEST;
+    private int limit; // Maximum number of posts returned
+    private List<String> fields; // Projected fields (FeedView.resolve), or null for every field
+    private FeedCursor after; // Only posts strictly after this position in the feed order, or null for the first page
+}
@@ -0,0 +1,40 @@
+package com.feedfusion2.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Query parameters of the feed endpoints, as sent by the client (bound from the query string).
+ */
+@Data
+@NoArgsConstructor
+public class FeedRequest {
+
+    private String platform; // Optional platform filter (e.g., "reddit", "youtube"); "all" or empty means every platform
+    private String keyword; // Optional keyword filter, every word must match; "term*" matches as a prefix
+    private String interests; // Optional comma-separated interests: only posts fetched for one of them, refreshed in the background
+    private String since; // Optional ISO-8601 instant: only posts published at or after it
+    private String until; // Optional ISO-8601 instant: only posts published before it
+    private Integer limit; // Optional maximum number of posts (server default and cap apply)
+    private String cursor; // Optional continuation token from the X-Next-Cursor header of the previous page
+    private String sort; // Optional order: "newest" (default), "relevance" (keyword searches) or "ranked"; cursors need newest
+    private String view; // Optional field set: "card" (default), "summary" or "full"
+    private String fields; // Optional comma-separated fields, instead of a view
+
+    /**
+     * @return The interests as a list, trimmed, without empty entries.
+     */
+    public List<String> interestList() {
+        return (interests != null && !interests.trim().isEmpty())
+                ? Arrays.stream(interests.split(","))
+                .map(String::trim) // Trim whitespace from each interest
+                .filter(s -> !s.isEmpty()) // Filter out empty strings after split
+                .collect(Collectors.toList())
+                : Collections.emptyList(); // Use an empty list if no interests provided
+    }
+}
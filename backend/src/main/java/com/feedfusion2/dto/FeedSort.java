@@ -0,0 +1,28 @@
+package com.feedfusion2.dto;
+
+import java.util.Locale;
+
+/**
+ * Order of the posts returned by a feed query.
+ */
+public enum FeedSort {
+
+    NEWEST, // Timestamp descending; supports cursors
+    RELEVANCE, // Text-search score descending; keyword queries only, first page only
+    RANKED; // PostScorer score (recency, engagement, interest match) over a window of recent posts; first page only
+
+    /**
+     * @param value Request parameter, e.g. "relevance"; null or empty means NEWEST.
+     * @throws IllegalArgumentException if the value is not a known sort.
+     */
+    public static FeedSort parse(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return NEWEST;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown sort: " + value);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.feedfusion2.dto;
+
+import com.feedfusion2.model.FeedPost;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Named sets of FeedPost fields returned by the feed and bookmark endpoints.
+ * Views become Mongo projections, so fields outside the view are never read from disk.
+ * id, timestamp and clusterId are always included: they position the post in the feed and
+ * collapse near-duplicates.
+ */
+public enum FeedView {
+
+    FULL(List.of()), // Every field
+    CARD(List.of("title", "description", "author", "link", "mediaUrl", "platform", "videoId")), // What PostCard renders
+    SUMMARY(List.of("title", "author", "link", "mediaUrl", "platform", "videoId")); // Card without the description
+
+    // JSON fields a client may ask for with fields=
+    public static final Set<String> SELECTABLE_FIELDS = Set.of(
+            "id", "title", "description", "author", "link", "mediaUrl", "platform", "timestamp", "fetchedAt", "videoId",
+            "score", "commentCount", "viewCount", "clusterId");
+
+    private final List<String> fields;
+
+    FeedView(List<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * @param view Optional view name; defaults to CARD.
+     * @param fields Optional comma-separated field list; takes precedence over the view.
+     * @return Fields to project, or null for every field.
+     * @throws IllegalArgumentException on an unknown view or field.
+     */
+    public static List<String> resolve(String view, String fields) {
+        Set<String> selected = new LinkedHashSet<>(List.of("id", "timestamp", "clusterId"));
+        if (fields != null && !fields.trim().isEmpty()) {
+            for (String field : fields.split(",")) {
+                String name = field.trim();
+                if (!SELECTABLE_FIELDS.contains(name)) {
+                    throw new IllegalArgumentException("Unknown field: " + name);
+                }
+                selected.add(name);
+            }
+            return new ArrayList<>(selected);
+        }
+        FeedView feedView = CARD;
+        if (view != null && !view.trim().isEmpty()) {
+            try {
+                feedView = valueOf(view.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown view: " + view);
+            }
+        }
+        if (feedView == FULL) {
+            return null;
+        }
+        selected.addAll(feedView.fields);
+        return new ArrayList<>(selected);
+    }
+
+    /**
+     * Applies a projection in memory, for posts that did not come from a projected query.
+     *
+     * @param fields Result of resolve(); null keeps every field.
+     * @return The post itself for a full view, otherwise a copy holding only the given fields.
+     */
+    public static FeedPost project(FeedPost post, List<String> fields) {
+        if (fields == null) {
+            return post;
+        }
+        FeedPost projected = new FeedPost();
+        for (String field : fields) {
+            switch (field) {
+                case "id" -> projected.setId(post.getId());
+                case "title" -> projected.setTitle(post.getTitle());
+                case "description" -> projected.setDescription(post.getDescription());
+                case "author" -> projected.setAuthor(post.getAuthor());
+                case "link" -> projected.setLink(post.getLink());
+                case "mediaUrl" -> projected.setMediaUrl(post.getMediaUrl());
+                case "platform" -> projected.setPlatform(post.getPlatform());
+                case "timestamp" -> projected.setTimestamp(post.getTimestamp());
+                case "fetchedAt" -> projected.setFetchedAt(post.getFetchedAt());
+                case "videoId" -> projected.setVideoId(post.getVideoId());
+                case "score" -> projected.setScore(post.getScore());
+                case "commentCount" -> projected.setCommentCount(post.getCommentCount());
+                case "viewCount" -> projected.setViewCount(post.getViewCount());
+                case "clusterId" -> projected.setClusterId(post.getClusterId());
+                default -> throw new IllegalArgumentException("Unknown field: " + field);
+            }
+        }
+        return projected;
+    }
+}
@@ -1,4 +1,49 @@
 package com.feedfusion2.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Reddit listing response (e.g. /r/{subreddit}/hot.json), reduced to the fields FeedPost needs.
+ * Every other field of the (large) listing is skipped at the token level while decoding.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true) // Ignore fields we don't need
 public class RedditDataDto {
+
+    private Listing data;
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Listing {
+        private List<Child> children;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Child {
+        private Post data;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Post {
+        private String id;
+        private String title;
+        private String author;
+        private String permalink;
+        private String selftext;
+        private String thumbnail;
+
+        @JsonProperty("created_utc")
+        private Double createdUtc; // Seconds since epoch
+
+        private Long score; // Upvotes minus downvotes
+
+        @JsonProperty("num_comments")
+        private Long numComments;
+    }
 }
@@ -0,0 +1,17 @@
+package com.feedfusion2.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A term that appears in many recently ingested post titles.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingTopic {
+
+    private String term;
+    private long count; // New posts with the term in their title within the trending window (estimate, never low)
+}
@@ -1,4 +1,56 @@
 package com.feedfusion2.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * YouTube search response (/search?part=snippet), reduced to the fields FeedPost needs.
+ * Every other field is skipped at the token level while decoding.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true) // Ignore fields we don't need
 public class YoutubeDataDto {
+
+    private List<Item> items;
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Item {
+        private ItemId id;
+        private Snippet snippet;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class ItemId {
+        private String kind; // "youtube#video" for videos
+        private String videoId;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Snippet {
+        private String title;
+        private String description;
+        private String channelTitle;
+        private String publishedAt; // RFC 3339, parsed to Instant by the service
+        private Thumbnails thumbnails;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Thumbnails {
+        private Thumbnail medium;
+        @JsonProperty("default")
+        private Thumbnail defaultThumbnail;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Thumbnail {
+        private String url;
+    }
 }
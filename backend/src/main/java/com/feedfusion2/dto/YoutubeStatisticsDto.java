@@ -0,0 +1,32 @@
+package com.feedfusion2.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * YouTube videos response (/videos?part=statistics), reduced to the engagement counters.
+ * YouTube sends the counters as strings; Jackson coerces them to numbers.
+ */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class YoutubeStatisticsDto {
+
+    private List<Item> items;
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Item {
+        private String id; // Video ID
+        private Statistics statistics;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Statistics {
+        private Long viewCount;
+        private Long likeCount; // Absent when the channel hides likes
+        private Long commentCount; // Absent when comments are disabled
+    }
+}
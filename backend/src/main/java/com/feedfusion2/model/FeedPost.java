@@ -1,24 +1,43 @@
 package com.feedfusion2.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.Instant;
+import java.util.List;
 
 @Data // Lombok: Generates getters, setters, toString, equals, hashCode
 @NoArgsConstructor
 @AllArgsConstructor
+@Builder(toBuilder = true) // toBuilder: shallow copies of fetched posts (UpstreamFetchCoalescer)
+@JsonInclude(JsonInclude.Include.NON_NULL) // Fields left out of a view's projection are omitted, not sent as null
 @Document(collection = "feed_posts") // Maps this class to the MongoDB collection
+@CompoundIndexes({
+        @CompoundIndex(name = "timestamp_id", def = "{'timestamp': -1, '_id': -1}"), // Unfiltered feed, newest first
+        @CompoundIndex(name = "platform_timestamp", def = "{'platform': 1, 'timestamp': -1, '_id': -1}"), // Platform-filtered feed
+        @CompoundIndex(name = "interests_timestamp", def = "{'interests': 1, 'timestamp': -1, '_id': -1}"), // Interest-filtered feed (multikey)
+        @CompoundIndex(name = "searchTerms_timestamp", def = "{'searchTerms': 1, 'timestamp': -1, '_id': -1}") // Keyword feed: term or prefix scans in feed order
+})
 public class FeedPost {
 
     @Id
     private String id; // MongoDB will generate this ObjectId, maps to _id
 
+    @TextIndexed(weight = 3) // Matches in the title rank above matches in the description
     private String title;
+
+    @TextIndexed
     private String description;
+
     private String author;
 
     @Indexed(unique = true) // Ensure links are unique
@@ -32,8 +51,30 @@ public class FeedPost {
     @Indexed // Index for sorting
     private Instant timestamp; // Use Instant for UTC timestamps
 
-    @Indexed // Index for potential cleanup/TTL
     private Instant fetchedAt;
 
+    @Indexed(name = "expireAt_ttl", expireAfter = "0s") // TTL index: MongoDB deletes the post once expireAt has passed
+    @JsonIgnore // Internal, never sent to clients
+    private Instant expireAt; // fetchedAt + feed.retention.ttl (FeedRetention); unset while the post is bookmarked
+
+    @JsonIgnore // Internal, never sent to clients
+    private Integer bookmarkCount; // Users bookmarking the post
+
     private String videoId;
+
+    // Engagement as of the latest fetch (FeedPostBulkWriter), input to sort=ranked; null when the platform does not report it
+    private Long score; // Reddit score, YouTube like count
+    private Long commentCount; // Reddit num_comments, YouTube comment count
+    private Long viewCount; // YouTube only
+
+    @JsonIgnore // Internal, never sent to clients
+    private List<String> searchTerms; // SearchTerms.of(title, description), set at ingest
+
+    @JsonIgnore // Internal, never sent to clients
+    private List<String> interests; // Normalized interests (for Reddit, the subreddit) the post was fetched for; grows when refetched for another
+
+    @JsonIgnore // Internal, never sent to clients
+    private List<Integer> minHash; // MinHash.of(title, description), set at ingest
+
+    private String clusterId; // Near-duplicate cluster (DuplicateClusterIndex); the feed shows one post per cluster
 }
\ No newline at end of file
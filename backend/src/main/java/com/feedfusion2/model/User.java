@@ -29,6 +29,8 @@ public class User {
     private Set<String> roles = new HashSet<>();
     // Stores the MongoDB IDs (_id) of the bookmarked FeedPost documents
     private Set<String> bookmarkedPostIds = new HashSet<>();
+    // Incremented on every bookmark change; bookmark ETags are derived from it
+    private long bookmarksVersion;
     // Constructor without ID (useful for creation)
     public User(String username, String email, String password) {
         this.username = username;
@@ -40,12 +42,14 @@ public class User {
         if (this.bookmarkedPostIds == null) {
             this.bookmarkedPostIds = new HashSet<>();
         }
-        this.bookmarkedPostIds.add(postId);
+        if (this.bookmarkedPostIds.add(postId)) {
+            this.bookmarksVersion++;
+        }
     }
 
     public void removeBookmark(String postId) {
-        if (this.bookmarkedPostIds != null) {
-            this.bookmarkedPostIds.remove(postId);
+        if (this.bookmarkedPostIds != null && this.bookmarkedPostIds.remove(postId)) {
+            this.bookmarksVersion++;
         }
     }
 
@@ -0,0 +1,20 @@
+package com.feedfusion2.repository;
+
+import com.feedfusion2.dto.FeedQuery;
+import com.feedfusion2.model.FeedPost;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Custom query fragment of FeedPostRepository for queries built from optional filters.
+ */
+public interface FeedPostRepositoryCustom {
+
+    // Newest first, with every filter, the cursor seek, the sort and the limit evaluated by Mongo
+    Flux<FeedPost> findFeed(FeedQuery query);
+
+    // Posts by ID with only the given fields (null for every field), in no particular order
+    Flux<FeedPost> findAllById(Collection<String> ids, List<String> fields);
+}
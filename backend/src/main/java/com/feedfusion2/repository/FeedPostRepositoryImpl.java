@@ -0,0 +1,122 @@
+package com.feedfusion2.repository;
+
+import com.feedfusion2.dto.FeedCursor;
+import com.feedfusion2.dto.FeedQuery;
+import com.feedfusion2.dto.FeedSort;
+import com.feedfusion2.model.FeedPost;
+import com.feedfusion2.util.SearchTerms;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Implementation of FeedPostRepositoryCustom (picked up by Spring Data through the Impl suffix).
+ */
+public class FeedPostRepositoryImpl implements FeedPostRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    public FeedPostRepositoryImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Flux<FeedPost> findFeed(FeedQuery feedQuery) {
+        List<Criteria> filters = new ArrayList<>();
+        if (feedQuery.getPlatform() != null) {
+            filters.add(Criteria.where("platform").is(feedQuery.getPlatform()));
+        }
+        if (feedQuery.getSince() != null || feedQuery.getUntil() != null) {
+            // Bounds the timestamp range of the index scan, so only the requested window is read
+            Criteria window = Criteria.where("timestamp");
+            if (feedQuery.getSince() != null) {
+                window.gte(feedQuery.getSince());
+            }
+            if (feedQuery.getUntil() != null) {
+                window.lt(feedQuery.getUntil());
+            }
+            filters.add(window);
+        }
+        if (feedQuery.getInterests() != null) {
+            // Multikey index, one range scan per interest; null also matches posts stored before posts were tagged
+            List<String> interests = new ArrayList<>(feedQuery.getInterests());
+            interests.add(null);
+            filters.add(Criteria.where("interests").in(interests));
+        }
+
+        TextCriteria textSearch = null;
+        if (feedQuery.getKeyword() != null) {
+            SearchTerms.Parsed terms = SearchTerms.parse(feedQuery.getKeyword());
+            if (terms.isEmpty()) {
+                return Flux.empty(); // Only punctuation, nothing can match
+            }
+            // Every term must be present. Exact terms and prefixes (anchored, case-sensitive regexes)
+            // are range scans of the searchTerms_timestamp index, already in feed order.
+            terms.getExact().forEach(term -> filters.add(Criteria.where("searchTerms").is(term)));
+            terms.getPrefixes().forEach(prefix ->
+                    filters.add(Criteria.where("searchTerms").regex("^" + Pattern.quote(prefix))));
+            // Words the tokenizer cannot represent ("c++", "3.2") fall back to a case-insensitive text match
+            terms.getLiterals().forEach(literal -> {
+                Pattern pattern = Pattern.compile(Pattern.quote(literal), Pattern.CASE_INSENSITIVE);
+                filters.add(new Criteria().orOperator(
+                        Criteria.where("title").regex(pattern),
+                        Criteria.where("description").regex(pattern)));
+            });
+            if (feedQuery.getSort() == FeedSort.RELEVANCE && !terms.getExact().isEmpty()) {
+                // The text index only scores the posts the filters above match (stemmed, title weighted)
+                textSearch = TextCriteria.forDefaultLanguage().matchingAny(terms.getExact().toArray(new String[0]));
+            }
+        }
+
+        if (feedQuery.getAfter() != null) {
+            // Keyset seek: (timestamp, _id) strictly below the cursor, so every page is an index range scan
+            FeedCursor after = feedQuery.getAfter();
+            ObjectId afterId = new ObjectId(after.getId());
+            filters.add(new Criteria().orOperator(
+                    Criteria.where("timestamp").lt(after.getTimestamp()),
+                    Criteria.where("timestamp").is(after.getTimestamp()).and("_id").lt(afterId)));
+        }
+
+        Query query;
+        if (textSearch != null) {
+            // Score is only used for ordering; "textScore" does not collide with any FeedPost field
+            query = TextQuery.queryText(textSearch).includeScore("textScore").sortByScore();
+        } else {
+            query = new Query();
+        }
+        if (!filters.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(filters));
+        }
+        // _id breaks ties between posts with the same timestamp so the order is stable
+        query.with(Sort.by(Sort.Direction.DESC, "timestamp", "_id"));
+        query.limit(feedQuery.getLimit());
+        project(query, feedQuery.getFields());
+        return mongoTemplate.find(query, FeedPost.class);
+    }
+
+    @Override
+    public Flux<FeedPost> findAllById(Collection<String> ids, List<String> fields) {
+        Query query = Query.query(Criteria.where("_id").in(ids));
+        project(query, fields);
+        return mongoTemplate.find(query, FeedPost.class);
+    }
+
+    // Fields outside the projection are neither read from disk nor decoded
+    private static void project(Query query, List<String> fields) {
+        if (fields != null) {
+            fields.forEach(field -> query.fields().include(field));
+        }
+    }
+}
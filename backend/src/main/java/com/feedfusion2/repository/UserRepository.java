@@ -1,23 +1,38 @@
 package com.feedfusion2.repository;
 
 import com.feedfusion2.model.User;
-import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
-
-import java.util.Optional;
+import reactor.core.publisher.Mono;
 
 @Repository
-public interface UserRepository extends MongoRepository<User, String> { // Use String for ID type
+public interface UserRepository extends ReactiveMongoRepository<User, String> { // Use String for ID type
 
     // Method to find a user by their username
-    Optional<User> findByUsername(String username);
+    Mono<User> findByUsername(String username);
 
     // Method to find a user by their email
-    Optional<User> findByEmail(String email);
+    Mono<User> findByEmail(String email);
 
     // Method to check if a username already exists
-    Boolean existsByUsername(String username);
+    Mono<Boolean> existsByUsername(String username);
 
     // Method to check if an email already exists
-    Boolean existsByEmail(String email);
+    Mono<Boolean> existsByEmail(String email);
+
+    // Only the bookmark version, for ETag checks without loading the bookmarks
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'bookmarksVersion': 1 }")
+    Mono<User> findBookmarksVersionById(String id);
+
+    // Atomic bookmark changes, one round trip each; the filter makes a no-op change match nothing,
+    // so the count returned is 1 only if the bookmark set (and its version) changed
+    @Query("{ '_id': ?0, 'bookmarkedPostIds': { '$ne': ?1 } }")
+    @Update("{ '$addToSet': { 'bookmarkedPostIds': ?1 }, '$inc': { 'bookmarksVersion': 1 } }")
+    Mono<Long> addBookmark(String id, String postId);
+
+    @Query("{ '_id': ?0, 'bookmarkedPostIds': ?1 }")
+    @Update("{ '$pull': { 'bookmarkedPostIds': ?1 }, '$inc': { 'bookmarksVersion': 1 } }")
+    Mono<Long> removeBookmark(String id, String postId);
 }
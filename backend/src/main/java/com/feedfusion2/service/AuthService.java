@@ -1,14 +1,22 @@
 package com.feedfusion2.service;
 
+import com.feedfusion2.dto.AuthResponse;
+import com.feedfusion2.dto.LoginRequest;
 import com.feedfusion2.dto.SignupRequest; // Ensure DTO exists
 import com.feedfusion2.model.User; // Ensure User model exists
 import com.feedfusion2.repository.UserRepository; // Ensure UserRepository exists
+import com.feedfusion2.util.JwtUtil;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder; // Ensure PasswordEncoder bean is configured
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Service; // Make this a Spring Service bean
+import reactor.core.publisher.Mono;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 
 @Service // Marks this class as a Spring service component
 public class AuthService {
@@ -16,8 +24,18 @@ public class AuthService {
     @Autowired // Inject the UserRepository bean
     UserRepository userRepository;
 
-    @Autowired // Inject the PasswordEncoder bean (defined in SecurityConfig)
-    PasswordEncoder passwordEncoder;
+    @Autowired // BCrypt on its own bounded pool (see PasswordHashing)
+    PasswordHashing passwordHashing;
+
+    @Autowired
+    JwtUtil jwtUtil;
+
+    private volatile String unknownUserHash; // Checked against for unknown usernames, so they take as long as a wrong password
+
+    @PostConstruct
+    void init() {
+        passwordHashing.encode(UUID.randomUUID().toString()).subscribe(hash -> unknownUserHash = hash);
+    }
 
     /**
      * Registers a new user.
@@ -25,39 +43,77 @@ public class AuthService {
      * and saves the new user to the database.
      *
      * @param signupRequest DTO containing the new user's details.
-     * @return true if registration is successful.
-     * @throws IllegalArgumentException if username or email is already taken.
+     * @return Mono emitting the saved user.
+     *         Errors with IllegalArgumentException if username or email is already taken,
+     *         or with RejectedExecutionException if the hashing pool is saturated.
      */
-    public boolean registerUser(SignupRequest signupRequest) {
+    public Mono<User> registerUser(SignupRequest signupRequest) {
         // 1. Check if username already exists
-        if (userRepository.existsByUsername(signupRequest.getUsername())) {
-            // Throw an exception that the controller can catch and return as a Bad Request
-            throw new IllegalArgumentException("Error: Username is already taken!");
-        }
-
-        // 2. Check if email already exists
-        if (userRepository.existsByEmail(signupRequest.getEmail())) {
-            // Throw an exception
-            throw new IllegalArgumentException("Error: Email is already in use!");
-        }
-
-        // 3. Create new user's account
-        User user = new User(
-                signupRequest.getUsername(),
-                signupRequest.getEmail(),
-                passwordEncoder.encode(signupRequest.getPassword()) // IMPORTANT: Encode the password
-        );
-
-        // 4. Set default roles (e.g., ROLE_USER) - adjust as needed
-        Set<String> roles = new HashSet<>();
-        roles.add("ROLE_USER"); // Assign a default role
-        // You could add logic here to assign different roles based on signupRequest if needed
-        user.setRoles(roles);
-
-        // 5. Save the user to the database
-        userRepository.save(user);
-
-        // 6. Indicate successful registration
-        return true;
+        return userRepository.existsByUsername(signupRequest.getUsername())
+                .flatMap(usernameTaken -> {
+                    if (usernameTaken) {
+                        // Error that the controller can map to a Bad Request
+                        return Mono.error(new IllegalArgumentException("Error: Username is already taken!"));
+                    }
+                    // 2. Check if email already exists
+                    return userRepository.existsByEmail(signupRequest.getEmail());
+                })
+                .flatMap(emailTaken -> {
+                    if (emailTaken) {
+                        return Mono.error(new IllegalArgumentException("Error: Email is already in use!"));
+                    }
+                    // 3. Encode the password (CPU-bound BCrypt, on the bounded hashing pool)
+                    return passwordHashing.encode(signupRequest.getPassword());
+                })
+                .flatMap(encodedPassword -> {
+                    // 4. Create new user's account
+                    User user = new User(
+                            signupRequest.getUsername(),
+                            signupRequest.getEmail(),
+                            encodedPassword // IMPORTANT: Store only the encoded password
+                    );
+
+                    // 5. Set default roles (e.g., ROLE_USER) - adjust as needed
+                    Set<String> roles = new HashSet<>();
+                    roles.add("ROLE_USER"); // Assign a default role
+                    // You could add logic here to assign different roles based on signupRequest if needed
+                    user.setRoles(roles);
+
+                    // 6. Save the user to the database (the unique indexes catch a concurrent signup with the same name)
+                    return userRepository.save(user)
+                            .onErrorMap(DuplicateKeyException.class,
+                                    e -> new IllegalArgumentException("Error: Username or email is already taken!"));
+                });
+    }
+
+    /**
+     * Checks the credentials and issues a JWT carrying the user's ID and roles.
+     * Costs one BCrypt check whether or not the user exists (an unknown one is checked against
+     * a dummy hash), so the response time does not tell which usernames exist.
+     *
+     * @param loginRequest Username and password.
+     * @return Mono emitting the token and the user's details.
+     *         Errors with BadCredentialsException on an unknown username or wrong password,
+     *         or with RejectedExecutionException if the hashing pool is saturated.
+     */
+    public Mono<AuthResponse> login(LoginRequest loginRequest) {
+        return userRepository.findByUsername(loginRequest.getUsername())
+                .flatMap(user -> passwordHashing.matches(loginRequest.getPassword(), user.getPassword())
+                        .flatMap(matched -> matched ? Mono.just(toAuthResponse(user)) : Mono.<AuthResponse>error(badCredentials())))
+                .switchIfEmpty(Mono.defer(() -> { // No such user
+                    String hash = unknownUserHash;
+                    Mono<Boolean> check = hash != null ? passwordHashing.matches(loginRequest.getPassword(), hash) : Mono.just(false);
+                    return check.then(Mono.error(badCredentials()));
+                }));
+    }
+
+    // Same error for an unknown username and a wrong password
+    private static BadCredentialsException badCredentials() {
+        return new BadCredentialsException("Invalid username or password");
+    }
+
+    private AuthResponse toAuthResponse(User user) {
+        List<String> roles = user.getRoles() != null ? List.copyOf(user.getRoles()) : List.of();
+        return new AuthResponse(jwtUtil.generateTokenFromUser(user), user.getId(), user.getUsername(), user.getEmail(), roles);
     }
 }
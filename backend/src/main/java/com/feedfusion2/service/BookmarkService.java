@@ -2,93 +2,78 @@ package com.feedfusion2.service; // Ensure package is correct
 
 import com.feedfusion2.model.FeedPost;
 import com.feedfusion2.model.User;
-import com.feedfusion2.repository.FeedPostRepository; // Assuming blocking repository
+import com.feedfusion2.repository.FeedPostRepository;
 import com.feedfusion2.repository.UserRepository;
+import com.feedfusion2.util.ETags;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.userdetails.UsernameNotFoundException; // Or a custom exception
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
 public class BookmarkService {
 
     private static final Logger log = LoggerFactory.getLogger(BookmarkService.class);
 
-    private final UserRepository userRepository; // Blocking repository
-    private final FeedPostRepository feedPostRepository; // Blocking repository
+    private final UserRepository userRepository;
+    private final FeedPostRepository feedPostRepository;
+    private final FeedVersion feedVersion;
+    private final FeedRetention feedRetention;
 
     @Autowired
-    public BookmarkService(UserRepository userRepository, FeedPostRepository feedPostRepository) {
+    public BookmarkService(UserRepository userRepository, FeedPostRepository feedPostRepository, FeedVersion feedVersion,
+                           FeedRetention feedRetention) {
         this.userRepository = userRepository;
         this.feedPostRepository = feedPostRepository;
+        this.feedVersion = feedVersion;
+        this.feedRetention = feedRetention;
     }
 
     /**
-     * Adds a post ID to a user's bookmarks.
+     * Adds a post ID to a user's bookmarks with one atomic $addToSet, without loading the user.
+     * A newly bookmarked post is exempted from retention.
      * @param userId ID of the user.
      * @param postId ID of the FeedPost to bookmark.
      * @return Mono signaling completion or error.
      */
     public Mono<Void> addBookmark(String userId, String postId) {
         log.debug("Attempting to add bookmark. UserID: {}, PostID: {}", userId, postId);
-        // Wrap blocking calls for reactive context
-        return Mono.fromCallable(() -> {
-                    // Find the user (blocking)
-                    User user = userRepository.findById(userId)
-                            .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + userId));
-                    // Add the bookmark (modifies the set in memory)
-                    user.addBookmark(postId);
-                    // Save the updated user (blocking)
-                    userRepository.save(user);
-                    log.info("Bookmark added successfully for UserID: {}, PostID: {}", userId, postId);
-                    return null; // Return null for Void Mono
-                })
-                .subscribeOn(Schedulers.boundedElastic()) // Schedule blocking operations
-                .then(); // Convert to Mono<Void>
+        return userRepository.addBookmark(userId, postId)
+                .flatMap(changed -> changed > 0 ? feedRetention.retain(postId) : requireUser(userId)) // Already bookmarked, or no such user
+                .doOnSuccess(done -> log.info("Bookmark added successfully for UserID: {}, PostID: {}", userId, postId));
     }
 
     /**
-     * Removes a post ID from a user's bookmarks.
+     * Removes a post ID from a user's bookmarks with one atomic $pull, without loading the user.
+     * A post no one bookmarks any more expires again.
      * @param userId ID of the user.
      * @param postId ID of the FeedPost to unbookmark.
      * @return Mono signaling completion or error.
      */
     public Mono<Void> removeBookmark(String userId, String postId) {
         log.debug("Attempting to remove bookmark. UserID: {}, PostID: {}", userId, postId);
-        // Wrap blocking calls
-        return Mono.fromCallable(() -> {
-                    User user = userRepository.findById(userId)
-                            .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + userId));
-                    user.removeBookmark(postId);
-                    userRepository.save(user);
-                    log.info("Bookmark removed successfully for UserID: {}, PostID: {}", userId, postId);
-                    return null;
-                })
-                .subscribeOn(Schedulers.boundedElastic())
-                .then();
+        return userRepository.removeBookmark(userId, postId)
+                .flatMap(changed -> changed > 0 ? feedRetention.release(postId) : requireUser(userId)) // Not bookmarked, or no such user
+                .doOnSuccess(done -> log.info("Bookmark removed successfully for UserID: {}, PostID: {}", userId, postId));
     }
 
     /**
      * Retrieves the bookmarked FeedPost objects for a given user.
      * @param userId ID of the user.
+     * @param fields Fields to load (see FeedView.resolve), or null for whole posts.
      * @return Flux emitting the bookmarked FeedPost objects.
      */
-    public Flux<FeedPost> getBookmarkedPosts(String userId) {
+    public Flux<FeedPost> getBookmarkedPosts(String userId, List<String> fields) {
         log.debug("Attempting to retrieve bookmarks for UserID: {}", userId);
-        // Wrap blocking calls
-        return Mono.fromCallable(() -> userRepository.findById(userId)
-                        .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + userId))
-                )
-                .subscribeOn(Schedulers.boundedElastic())
+        return findUser(userId)
                 .flatMapMany(user -> { // Switch to Flux processing
                     Set<String> bookmarkedIds = user.getBookmarkedPostIds();
                     if (bookmarkedIds == null || bookmarkedIds.isEmpty()) {
@@ -96,11 +81,8 @@ public class BookmarkService {
                         return Flux.empty(); // No IDs, return empty Flux
                     }
                     log.debug("User {} has {} bookmarks. Fetching posts...", userId, bookmarkedIds.size());
-                    // Fetch all posts matching the bookmarked IDs (blocking)
-                    // Wrap the blocking call
-                    return Mono.fromCallable(() -> feedPostRepository.findAllById(bookmarkedIds))
-                            .subscribeOn(Schedulers.boundedElastic())
-                            .flatMapMany(Flux::fromIterable); // Convert the resulting List<FeedPost> to Flux<FeedPost>
+                    // Stream all posts matching the bookmarked IDs
+                    return feedPostRepository.findAllById(bookmarkedIds, fields);
                 })
                 .doOnError(e -> log.error("Error retrieving bookmarked posts for UserID {}: {}", userId, e.getMessage()));
     }
@@ -113,11 +95,46 @@ public class BookmarkService {
      */
     public Mono<Set<String>> getBookmarkedPostIds(String userId) {
         log.debug("Attempting to retrieve bookmark IDs for UserID: {}", userId);
-        return Mono.fromCallable(() -> userRepository.findById(userId)
-                        .map(User::getBookmarkedPostIds) // Get the set of IDs
-                        .orElse(Collections.emptySet()) // Return empty set if user not found or has no bookmarks
-                )
-                .subscribeOn(Schedulers.boundedElastic())
+        return userRepository.findById(userId)
+                .map(User::getBookmarkedPostIds) // Get the set of IDs
+                .defaultIfEmpty(Collections.emptySet()) // Return empty set if user not found or has no bookmarks
                 .doOnError(e -> log.error("Error retrieving bookmark IDs for UserID {}: {}", userId, e.getMessage()));
     }
+
+    /**
+     * ETag of the user's bookmark IDs, read without loading the bookmarks themselves.
+     * @param userId ID of the user.
+     * @param representation Media type the response is written in (Representations.negotiate).
+     * @return Mono containing the quoted ETag.
+     */
+    public Mono<String> getBookmarkIdsETag(String userId, MediaType representation) {
+        return userRepository.findBookmarksVersionById(userId)
+                .map(user -> ETags.of("bookmark-ids", userId, user.getBookmarksVersion(), representation))
+                .switchIfEmpty(Mono.error(() -> new UsernameNotFoundException("User not found with id: " + userId)));
+    }
+
+    /**
+     * ETag of the user's bookmarked posts: changes with the bookmark set, the stored posts and the fields sent.
+     * @param userId ID of the user.
+     * @param fields Fields the response carries, or null for whole posts.
+     * @param representation Media type the response is written in (Representations.negotiate).
+     * @return Mono containing the quoted ETag.
+     */
+    public Mono<String> getBookmarkedPostsETag(String userId, List<String> fields, MediaType representation) {
+        return userRepository.findBookmarksVersionById(userId)
+                .map(user -> ETags.of("bookmarks", userId, user.getBookmarksVersion(), feedVersion.current(), fields, representation))
+                .switchIfEmpty(Mono.error(() -> new UsernameNotFoundException("User not found with id: " + userId)));
+    }
+
+    // Only reached when an atomic update changed nothing, to tell a no-op from a missing user
+    private Mono<Void> requireUser(String userId) {
+        return userRepository.existsById(userId)
+                .flatMap(exists -> exists ? Mono.<Void>empty()
+                        : Mono.error(new UsernameNotFoundException("User not found with id: " + userId)));
+    }
+
+    private Mono<User> findUser(String userId) {
+        return userRepository.findById(userId)
+                .switchIfEmpty(Mono.error(() -> new UsernameNotFoundException("User not found with id: " + userId)));
+    }
 }
@@ -0,0 +1,195 @@
+package com.feedfusion2.service;
+
+import com.feedfusion2.model.FeedPost;
+import com.feedfusion2.util.BoundedCache;
+import com.feedfusion2.util.MinHash;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * LSH index over MinHash signatures that puts each new post into a near-duplicate cluster.
+ * A signature is cut into BANDS bands of ROWS values; posts sharing a band land in the same bucket.
+ * Only the members of the new post's BANDS buckets are compared, so the work per post is constant,
+ * no pairwise scan. With 16 bands of 2 rows, a post with Jaccard similarity 0.6 to a member shares
+ * a bucket with it 99.9% of the time; candidates are confirmed against feed.clusters.min-similarity.
+ * The cluster ID is derived from the signature of the post that founded the cluster.
+ */
+@Component
+public class DuplicateClusterIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(DuplicateClusterIndex.class);
+
+    private static final int ROWS = 2;
+    private static final int BANDS = MinHash.SIZE / ROWS;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final FeedPostJsonCache jsonCache;
+    private final BoundedCache<Long, Deque<Member>> buckets; // Band number and values -> newest members
+    private final Counter joined;
+    private final Counter founded;
+
+    @Value("${feed.clusters.enabled:true}")
+    private boolean enabled;
+
+    @Value("${feed.clusters.min-similarity:0.6}")
+    private double minSimilarity; // Estimated Jaccard similarity of the title terms
+
+    @Value("${feed.clusters.bucket-size:8}")
+    private int bucketSize;
+
+    @Value("${feed.clusters.seed-posts:50000}")
+    private int seedPosts;
+
+    @Value("${feed.ingest.batch-size:100}")
+    private int batchSize;
+
+    @Autowired
+    public DuplicateClusterIndex(ReactiveMongoTemplate mongoTemplate, FeedPostJsonCache jsonCache, MeterRegistry meterRegistry,
+                                 @Value("${feed.clusters.max-buckets:1000000}") int maxBuckets) {
+        this.mongoTemplate = mongoTemplate;
+        this.jsonCache = jsonCache;
+        this.buckets = new BoundedCache<>(maxBuckets);
+        this.joined = meterRegistry.counter("feed.clusters.assigned", "result", "joined");
+        this.founded = meterRegistry.counter("feed.clusters.assigned", "result", "new");
+        meterRegistry.gauge("feed.clusters.buckets", Tags.empty(), buckets, BoundedCache::size);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Loads the signatures of the newest stored posts in the background, signing and
+     * clustering those stored before clustering existed. Until then new posts only cluster with each other.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (!enabled) {
+            return;
+        }
+        Query query = new Query().with(Sort.by(Sort.Direction.DESC, "timestamp")).limit(seedPosts);
+        query.fields().include("title").include("description").include("minHash").include("clusterId");
+        mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(FeedPost.class))
+                .<Document>handle((document, sink) -> {
+                    List<Integer> signature = document.getList("minHash", Integer.class);
+                    String clusterId = document.getString("clusterId");
+                    if (signature != null && signature.size() == MinHash.SIZE && clusterId != null) {
+                        index(signature, clusterId);
+                        return;
+                    }
+                    signature = MinHash.of(document.getString("title"), document.getString("description"));
+                    if (signature != null) {
+                        sink.next(new Document("_id", document.get("_id"))
+                                .append("minHash", signature)
+                                .append("clusterId", assign(signature)));
+                    }
+                })
+                .buffer(batchSize)
+                .concatMap(this::updateBatch)
+                .reduce(0L, Long::sum)
+                .subscribe(
+                        count -> log.info("Duplicate cluster index seeded ({} buckets, {} stored posts signed).", buckets.size(), count),
+                        e -> log.error("Failed to seed duplicate cluster index: {}", e.getMessage()));
+    }
+
+    /**
+     * Sets the post's MinHash signature and cluster ID and adds it to the index. Call once per new post.
+     */
+    public void assign(FeedPost post) {
+        if (!enabled) {
+            return;
+        }
+        List<Integer> signature = MinHash.of(post.getTitle(), post.getDescription());
+        post.setMinHash(signature);
+        post.setClusterId(signature != null ? assign(signature) : null);
+    }
+
+    private String assign(List<Integer> signature) {
+        String clusterId = findCluster(signature);
+        if (clusterId != null) {
+            joined.increment();
+        } else {
+            clusterId = MinHash.id(signature);
+            founded.increment();
+        }
+        index(signature, clusterId);
+        return clusterId;
+    }
+
+    private String findCluster(List<Integer> signature) {
+        for (int band = 0; band < BANDS; band++) {
+            Deque<Member> bucket = buckets.get(bucketKey(band, signature));
+            if (bucket == null) {
+                continue;
+            }
+            for (Member member : bucket) {
+                if (MinHash.similarity(member.signature, signature) >= minSimilarity) {
+                    return member.clusterId;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void index(List<Integer> signature, String clusterId) {
+        Member member = new Member(signature, clusterId);
+        for (int band = 0; band < BANDS; band++) {
+            buckets.compute(bucketKey(band, signature), (key, bucket) -> {
+                Deque<Member> members = bucket != null ? bucket : new ConcurrentLinkedDeque<>();
+                members.addFirst(member);
+                if (members.size() > bucketSize) {
+                    members.pollLast(); // Oldest member of a crowded bucket
+                }
+                return members;
+            });
+        }
+    }
+
+    private Mono<Long> updateBatch(List<Document> posts) {
+        ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FeedPost.class);
+        for (Document post : posts) {
+            bulk.updateOne(Query.query(Criteria.where("_id").is(post.get("_id"))),
+                    new Update().set("minHash", post.get("minHash")).set("clusterId", post.get("clusterId")));
+        }
+        return bulk.execute()
+                .doOnNext(result -> posts.forEach(post -> jsonCache.invalidate(post.get("_id").toString()))) // clusterId is sent to clients
+                .map(result -> (long) result.getModifiedCount());
+    }
+
+    // Band values packed into one long, salted with the band number; collisions only cost a comparison
+    private static long bucketKey(int band, List<Integer> signature) {
+        long values = ((long) signature.get(band * ROWS) << 32) | (signature.get(band * ROWS + 1) & 0xffffffffL);
+        return values * 31 + band;
+    }
+
+    private static final class Member {
+        private final List<Integer> signature;
+        private final String clusterId;
+
+        private Member(List<Integer> signature, String clusterId) {
+            this.signature = signature;
+            this.clusterId = clusterId;
+        }
+    }
+}
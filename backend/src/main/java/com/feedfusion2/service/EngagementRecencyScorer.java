@@ -0,0 +1,69 @@
+package com.feedfusion2.service;
+
+import com.feedfusion2.model.FeedPost;
+import com.feedfusion2.util.SearchTerms;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Default ranking: weighted sum of recency (exponential decay with a configurable half-life),
+ * engagement (log-scaled score, comments and views, so one viral post does not drown the rest)
+ * and the share of the user's interest terms found in the post. Each part lies in [0, 1].
+ */
+@Component
+public class EngagementRecencyScorer implements PostScorer {
+
+    private static final double ENGAGEMENT_SCALE = Math.log1p(1_000_000); // Engagement of 1M counts as 1.0
+
+    @Value("${feed.ranking.half-life:PT12H}")
+    private Duration halfLife;
+
+    @Value("${feed.ranking.recency-weight:1.0}")
+    private double recencyWeight;
+
+    @Value("${feed.ranking.engagement-weight:0.6}")
+    private double engagementWeight;
+
+    @Value("${feed.ranking.interest-weight:0.4}")
+    private double interestWeight;
+
+    @Override
+    public double score(FeedPost post, Set<String> interestTerms, Instant now) {
+        return recencyWeight * recency(post, now)
+                + engagementWeight * engagement(post)
+                + interestWeight * interestMatch(post, interestTerms);
+    }
+
+    private double recency(FeedPost post, Instant now) {
+        if (post.getTimestamp() == null) {
+            return 0;
+        }
+        double ageMillis = Math.max(0, Duration.between(post.getTimestamp(), now).toMillis());
+        return Math.pow(0.5, ageMillis / halfLife.toMillis());
+    }
+
+    private double engagement(FeedPost post) {
+        // Comments cost more effort than a vote, views less
+        double raw = Math.max(0, orZero(post.getScore())) + 2.0 * orZero(post.getCommentCount()) + orZero(post.getViewCount()) / 100.0;
+        return Math.min(1.0, Math.log1p(raw) / ENGAGEMENT_SCALE);
+    }
+
+    private double interestMatch(FeedPost post, Set<String> interestTerms) {
+        if (interestTerms.isEmpty()) {
+            return 0;
+        }
+        Collection<String> postTerms = post.getSearchTerms() != null
+                ? post.getSearchTerms() : SearchTerms.of(post.getTitle(), post.getDescription());
+        long matched = postTerms.stream().filter(interestTerms::contains).distinct().count();
+        return (double) matched / interestTerms.size();
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0;
+    }
+}
@@ -0,0 +1,223 @@
+package com.feedfusion2.service;
+
+import com.feedfusion2.model.FeedPost;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * Background ingestion engine.
+ * Periodically refreshes every tracked interest against each upstream provider
+ * (Reddit, YouTube) on that provider's own scheduler and stores new posts, tagged with the
+ * interests they were fetched for. Every feed.ingest.engagement-refresh-every-th tick of a
+ * provider also stores the fetched engagement counters of posts already stored.
+ * The read path (FeedService) only registers interests here and never waits on upstream HTTP.
+ */
+@Service
+public class FeedIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedIngestionService.class);
+
+    private final RedditService redditService;
+    private final YouTubeService youtubeService;
+    private final FeedPostBulkWriter feedPostBulkWriter;
+    private final UpstreamFetchCoalescer fetchCoalescer;
+    private final HotPostTier hotPostTier;
+    private final TimelineService timelineService;
+    private final FeedVersion feedVersion;
+    private final TrendingTopics trendingTopics;
+
+    // Interests requested by users (or seeded from config), refreshed on every provider tick
+    private final Set<String> trackedInterests = ConcurrentHashMap.newKeySet();
+    private final List<Provider> providers = new CopyOnWriteArrayList<>();
+
+    @Value("${feed.ingest.enabled:true}")
+    private boolean ingestEnabled;
+
+    @Value("${feed.ingest.seed-interests:}")
+    private List<String> seedInterests;
+
+    @Value("${feed.ingest.max-tracked-interests:500}")
+    private int maxTrackedInterests;
+
+    @Value("${feed.ingest.engagement-refresh-every:6}")
+    private int engagementRefreshEvery; // Provider ticks per engagement refresh
+
+    @Value("${feed.ingest.concurrency:4}")
+    private int concurrency; // Interests fetched in parallel per provider refresh
+
+    @Value("${feed.ingest.reddit.enabled:true}")
+    private boolean redditEnabled;
+
+    @Value("${feed.ingest.reddit.interval:PT5M}")
+    private Duration redditInterval;
+
+    @Value("${feed.ingest.youtube.enabled:true}")
+    private boolean youtubeEnabled;
+
+    @Value("${feed.ingest.youtube.interval:PT30M}")
+    private Duration youtubeInterval;
+
+    @Autowired
+    public FeedIngestionService(RedditService redditService, YouTubeService youtubeService,
+                                FeedPostBulkWriter feedPostBulkWriter, UpstreamFetchCoalescer fetchCoalescer,
+                                HotPostTier hotPostTier, TimelineService timelineService, FeedVersion feedVersion,
+                                TrendingTopics trendingTopics) {
+        this.redditService = redditService;
+        this.youtubeService = youtubeService;
+        this.feedPostBulkWriter = feedPostBulkWriter;
+        this.fetchCoalescer = fetchCoalescer;
+        this.hotPostTier = hotPostTier;
+        this.timelineService = timelineService;
+        this.feedVersion = feedVersion;
+        this.trendingTopics = trendingTopics;
+    }
+
+    /**
+     * Starts one refresh loop per enabled provider once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!ingestEnabled) {
+            log.info("Background ingestion is disabled (feed.ingest.enabled=false).");
+            return;
+        }
+        if (redditEnabled) {
+            providers.add(new Provider("reddit", redditInterval,
+                    interest -> fetchCoalescer.fetch("reddit", interest, () -> redditService.fetchRedditPosts(interest))));
+        }
+        if (youtubeEnabled) {
+            providers.add(new Provider("youtube", youtubeInterval,
+                    interest -> fetchCoalescer.fetch("youtube", interest, () -> youtubeService.fetchYouTubeVideos(interest))));
+        }
+        providers.forEach(this::startLoop);
+        trackInterests(seedInterests); // Seeds get their first refresh immediately
+    }
+
+    @PreDestroy
+    public void stop() {
+        providers.forEach(provider -> {
+            if (provider.loop != null) {
+                provider.loop.dispose();
+            }
+            provider.scheduler.dispose();
+        });
+        log.info("Background ingestion stopped.");
+    }
+
+    /**
+     * Registers interests for background refresh. Interests seen for the first time get an
+     * immediate asynchronous refresh; the caller never waits for it.
+     *
+     * @param interests Interests requested by a user.
+     */
+    public void trackInterests(Collection<String> interests) {
+        if (interests == null || interests.isEmpty()) {
+            return;
+        }
+        for (String interest : interests) {
+            String normalized = normalize(interest);
+            if (normalized == null || trackedInterests.contains(normalized)) {
+                continue;
+            }
+            if (trackedInterests.size() >= maxTrackedInterests) {
+                log.warn("Tracked interest limit ({}) reached, not tracking '{}'.", maxTrackedInterests, normalized);
+                continue;
+            }
+            if (trackedInterests.add(normalized)) {
+                log.info("Tracking new interest '{}' for background ingestion.", normalized);
+                providers.forEach(provider -> refresh(provider, List.of(normalized), false)
+                        .subscribeOn(provider.scheduler)
+                        .subscribe());
+            }
+        }
+    }
+
+    public Set<String> getTrackedInterests() {
+        return Set.copyOf(trackedInterests);
+    }
+
+    private void startLoop(Provider provider) {
+        log.info("Starting {} ingestion loop every {}.", provider.platform, provider.interval);
+        provider.loop = Flux.interval(provider.interval, provider.interval, provider.scheduler)
+                .onBackpressureDrop(tick -> log.warn("[{}] Previous refresh still running, skipping tick {}.", provider.platform, tick))
+                .concatMap(tick -> refresh(provider, List.copyOf(trackedInterests), refreshesEngagement(tick)), 1)
+                .subscribe();
+    }
+
+    // Ticks count from 0, so the first refresh after startup brings the counters of stored posts up to date
+    private boolean refreshesEngagement(long tick) {
+        return engagementRefreshEvery > 0 && tick % engagementRefreshEvery == 0;
+    }
+
+    /**
+     * Fetches the given interests from one provider and saves the new posts.
+     *
+     * @param refreshEngagement Whether to also store the engagement counters of stored posts.
+     * @return Mono emitting the number of posts saved; never errors.
+     */
+    private Mono<Long> refresh(Provider provider, List<String> interests, boolean refreshEngagement) {
+        if (interests.isEmpty()) {
+            return Mono.just(0L);
+        }
+        log.debug("[{}] Refreshing {} interests.", provider.platform, interests.size());
+        Flux<FeedPost> fetched = Flux.fromIterable(interests)
+                .flatMap(interest -> provider.fetcher.apply(interest)
+                        .doOnNext(post -> post.setInterests(List.of(interest))) // The writer merges the interests of duplicates
+                        .doOnError(e -> log.error("[{}] Error fetching for interest '{}': {}", provider.platform, interest, e.getMessage()))
+                        .onErrorResume(e -> Flux.empty()), concurrency); // Continue with other interests if one fails
+        return feedPostBulkWriter.write(fetched, refreshEngagement)
+                .doOnNext(hotPostTier::add) // Readers see new posts without a Mongo round trip
+                .doOnNext(post -> feedVersion.bump())
+                .doOnNext(post -> timelineService.fanOut(post, post.getInterests() != null ? post.getInterests() : List.of()))
+                .doOnNext(trendingTopics::record) // New posts only, so a post is counted once however often it is fetched
+                .count()
+                .doOnNext(saved -> log.info("[{}] Refresh of {} interests saved {} new posts.", provider.platform, interests.size(), saved))
+                .onErrorResume(e -> {
+                    log.error("[{}] Refresh failed: {}", provider.platform, e.getMessage(), e);
+                    return Mono.just(0L);
+                });
+    }
+
+    static String normalize(String interest) {
+        if (interest == null || interest.trim().isEmpty()) {
+            return null;
+        }
+        return interest.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Per-provider refresh settings and the scheduler its loop runs on
+    private static final class Provider {
+        private final String platform;
+        private final Duration interval;
+        private final Function<String, Flux<FeedPost>> fetcher;
+        private final Scheduler scheduler;
+        private Disposable loop;
+
+        private Provider(String platform, Duration interval, Function<String, Flux<FeedPost>> fetcher) {
+            this.platform = platform;
+            this.interval = interval;
+            this.fetcher = fetcher;
+            this.scheduler = Schedulers.newSingle("ingest-" + platform);
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.feedfusion2.service;
+
+import com.feedfusion2.model.FeedPost;
+import com.feedfusion2.util.SearchTerms;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Batched ingestion stage for fetched posts.
+ * Posts already known to the SeenLinkFilter with every interest they were fetched for are dropped
+ * up front; the rest of each batch costs one $in lookup on link plus one unordered bulk write keyed
+ * on link (upserts for new posts, $addToSet of new interests for stored ones), instead of a
+ * findByLink and a save per post. A write that refreshes engagement (every few ingestion ticks)
+ * looks up every post reporting counters and also stores the counters that moved.
+ */
+@Component
+public class FeedPostBulkWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedPostBulkWriter.class);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final SeenLinkFilter seenLinkFilter;
+    private final DuplicateClusterIndex duplicateClusterIndex;
+    private final HotPostTier hotPostTier;
+    private final FeedVersion feedVersion;
+    private final FeedRetention feedRetention;
+    private final FeedPostJsonCache jsonCache;
+    private final TimelineService timelineService;
+
+    @Value("${feed.ingest.batch-size:100}")
+    private int batchSize;
+
+    @Autowired
+    public FeedPostBulkWriter(ReactiveMongoTemplate mongoTemplate, SeenLinkFilter seenLinkFilter,
+                              DuplicateClusterIndex duplicateClusterIndex, HotPostTier hotPostTier, FeedVersion feedVersion,
+                              FeedRetention feedRetention, FeedPostJsonCache jsonCache,
+                              TimelineService timelineService) {
+        this.mongoTemplate = mongoTemplate;
+        this.seenLinkFilter = seenLinkFilter;
+        this.duplicateClusterIndex = duplicateClusterIndex;
+        this.hotPostTier = hotPostTier;
+        this.feedVersion = feedVersion;
+        this.feedRetention = feedRetention;
+        this.jsonCache = jsonCache;
+        this.timelineService = timelineService;
+    }
+
+    /**
+     * Stores the posts that are not yet in the collection, and adds the interests of the others
+     * to the stored posts (in Mongo and in the HotPostTier).
+     *
+     * @param posts Freshly fetched posts (may contain links already stored), interests set.
+     * @return Flux of the posts actually inserted, with their generated IDs set.
+     */
+    public Flux<FeedPost> write(Flux<FeedPost> posts) {
+        return write(posts, false);
+    }
+
+    /**
+     * Like write(posts), and with refreshEngagement also stores the fetched engagement counters
+     * of stored posts ($set score, $max commentCount and viewCount). Counter changes invalidate
+     * the post's cached JSON but do not bump the FeedVersion: they would change it on every tick,
+     * and the ranked feed, the one ordered by them, is re-scored per FeedRanker interval anyway.
+     */
+    public Flux<FeedPost> write(Flux<FeedPost> posts, boolean refreshEngagement) {
+        return posts
+                .filter(post -> post.getLink() != null)
+                .doOnNext(post -> post.setSearchTerms(SearchTerms.of(post.getTitle(), post.getDescription())))
+                .buffer(batchSize)
+                .concatMap(batch -> writeBatch(batch, refreshEngagement)
+                        .doOnError(e -> log.error("Error writing batch of {} posts: {}", batch.size(), e.getMessage(), e))
+                        .onErrorReturn(List.of()) // A failed batch does not stop the following ones
+                        .flatMapIterable(inserted -> inserted));
+    }
+
+    private Mono<List<FeedPost>> writeBatch(List<FeedPost> batch, boolean refreshEngagement) {
+        // Collapse duplicates within the batch (the same post can come back for several interests)
+        // and drop posts the seen-link filter already knows with all their interests, without asking Mongo;
+        // an engagement refresh looks up the posts reporting counters regardless
+        Map<String, FeedPost> byLink = new LinkedHashMap<>();
+        batch.forEach(post -> byLink.merge(post.getLink(), post, FeedPostBulkWriter::mergeInterests));
+        byLink.values().removeIf(post -> !(refreshEngagement && hasEngagement(post))
+                && seenLinkFilter.isKnown(post.getLink())
+                && seenLinkFilter.isTagged(post.getLink(), interestsOf(post)));
+        if (byLink.isEmpty()) {
+            log.debug("Batch of {} posts: all links and interests already known.", batch.size());
+            return Mono.just(List.of());
+        }
+
+        return findExisting(byLink.keySet())
+                .flatMap(existing -> {
+                    seenLinkFilter.markStored(existing.keySet());
+                    List<FeedPost> newPosts = new ArrayList<>();
+                    List<Refresh> refreshed = new ArrayList<>();
+                    for (FeedPost post : byLink.values()) {
+                        Document stored = existing.get(post.getLink());
+                        if (stored == null) {
+                            newPosts.add(post);
+                        } else {
+                            Refresh refresh = refresh(post, stored, refreshEngagement);
+                            if (refresh != null) {
+                                refreshed.add(refresh);
+                            }
+                        }
+                    }
+                    log.debug("Batch of {} posts: {} looked up, {} of them already stored, {} new, {} stored ones changed.",
+                            batch.size(), byLink.size(), existing.size(), newPosts.size(), refreshed.size());
+                    if (newPosts.isEmpty() && refreshed.isEmpty()) {
+                        return Mono.just(List.<FeedPost>of());
+                    }
+                    return upsert(newPosts, refreshed);
+                });
+    }
+
+    private Mono<List<FeedPost>> upsert(List<FeedPost> newPosts, List<Refresh> refreshed) {
+        ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FeedPost.class);
+        for (FeedPost post : newPosts) {
+            duplicateClusterIndex.assign(post); // Only posts about to be stored join a cluster
+            feedRetention.stamp(post);
+            // Upsert keyed on link, so a post inserted concurrently by another writer is only tagged
+            bulk.upsert(Query.query(Criteria.where("link").is(post.getLink())), insertOnly(post));
+        }
+        for (Refresh refresh : refreshed) {
+            bulk.updateOne(Query.query(Criteria.where("link").is(refresh.post.getLink())), refresh.update());
+        }
+        List<FeedPost> operations = new ArrayList<>(newPosts);
+        refreshed.forEach(refresh -> operations.add(refresh.post));
+        return bulk.execute()
+                .map(result -> {
+                    applyRefreshes(refreshed, Set.of());
+                    return result;
+                })
+                .onErrorResume(BulkOperationException.class, e -> {
+                    // Unordered: the other writes went through, only log the failed posts
+                    Set<Integer> failed = new HashSet<>();
+                    for (BulkWriteError error : e.getErrors()) {
+                        failed.add(error.getIndex());
+                        log.error("Error saving post {}: {}", operations.get(error.getIndex()).getLink(), error.getMessage());
+                    }
+                    applyRefreshes(refreshed, failed.stream().map(index -> index - newPosts.size()).collect(Collectors.toSet()));
+                    return Mono.just(e.getResult());
+                })
+                .map(result -> insertedPosts(newPosts, result));
+    }
+
+    // What a refetch changes on the stored post: interests it lacks and, on an engagement refresh, counters
+    // that moved. The post takes the stored id and timestamp (to locate it in the hot tier) and the resulting
+    // counters; null if nothing changed
+    private Refresh refresh(FeedPost post, Document stored, boolean refreshEngagement) {
+        List<String> storedInterests = stored.getList("interests", String.class, List.of());
+        List<String> added = interestsOf(post).stream()
+                .filter(interest -> !storedInterests.contains(interest))
+                .collect(Collectors.toList());
+        if (added.isEmpty()) {
+            seenLinkFilter.markTagged(post.getLink(), storedInterests);
+        }
+        // Votes can go down, so the score is replaced; comments and views only grow, a stale response must not lower them
+        Long storedScore = longOf(stored, "score");
+        boolean scoreChanged = post.getScore() != null && !post.getScore().equals(storedScore);
+        Long comments = max(longOf(stored, "commentCount"), post.getCommentCount());
+        Long views = max(longOf(stored, "viewCount"), post.getViewCount());
+        boolean engagementChanged = refreshEngagement && (scoreChanged
+                || !Objects.equals(comments, longOf(stored, "commentCount"))
+                || !Objects.equals(views, longOf(stored, "viewCount")));
+        if (added.isEmpty() && !engagementChanged) {
+            return null;
+        }
+        post.setId(stored.getObjectId("_id").toHexString());
+        post.setTimestamp(stored.getDate("timestamp") != null ? stored.getDate("timestamp").toInstant() : null);
+        post.setInterests(added);
+        post.setScore(post.getScore() != null ? post.getScore() : storedScore);
+        post.setCommentCount(comments);
+        post.setViewCount(views);
+        return new Refresh(post, engagementChanged);
+    }
+
+    // Changes that reached Mongo (all but the failed indexes into refreshed) go to the hot tier and timelines;
+    // new interests change the feed, new counters only the post's cached JSON
+    private void applyRefreshes(List<Refresh> refreshed, Set<Integer> failed) {
+        int tagged = 0;
+        int engaged = 0;
+        for (int i = 0; i < refreshed.size(); i++) {
+            if (failed.contains(i)) {
+                continue;
+            }
+            FeedPost post = refreshed.get(i).post;
+            if (!post.getInterests().isEmpty()) {
+                seenLinkFilter.markTagged(post.getLink(), post.getInterests());
+                hotPostTier.tag(post, post.getInterests());
+                timelineService.fanOut(post, post.getInterests()); // Now belongs to the timelines of the added interests
+                feedVersion.bump();
+                tagged++;
+            }
+            if (refreshed.get(i).engagementChanged) {
+                hotPostTier.setEngagement(post);
+                jsonCache.invalidate(post.getId()); // The counters are part of the post's JSON
+                engaged++;
+            }
+        }
+        if (tagged > 0 || engaged > 0) {
+            log.info("Updated stored posts: {} tagged with new interests, {} with new engagement counters.", tagged, engaged);
+        }
+    }
+
+    // Stored posts among the links, by link (id, timestamp, interests and engagement only)
+    private Mono<Map<String, Document>> findExisting(Set<String> links) {
+        Query query = Query.query(Criteria.where("link").in(links));
+        query.fields().include("link").include("timestamp").include("interests")
+                .include("score").include("commentCount").include("viewCount");
+        return mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(FeedPost.class))
+                .collectMap(document -> document.getString("link"));
+    }
+
+    // $setOnInsert of every mapped field, derived from the entity mapping so new fields are picked up;
+    // interests are added either way, so a post inserted concurrently for another interest gets both
+    private Update insertOnly(FeedPost post) {
+        Document document = new Document();
+        mongoTemplate.getConverter().write(post, document);
+        Update update = new Update();
+        document.forEach((field, value) -> {
+            if (!"_id".equals(field) && !"interests".equals(field)) {
+                update.setOnInsert(field, value);
+            }
+        });
+        return addInterests(update, post);
+    }
+
+    private static Update addInterests(Update update, FeedPost post) {
+        List<String> interests = interestsOf(post);
+        if (!interests.isEmpty()) {
+            update.addToSet("interests").each(interests.toArray());
+        }
+        return update;
+    }
+
+    private static boolean hasEngagement(FeedPost post) {
+        return post.getScore() != null || post.getCommentCount() != null || post.getViewCount() != null;
+    }
+
+    private static Long longOf(Document document, String field) {
+        Object value = document.get(field);
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+
+    private static Long max(Long stored, Long fetched) {
+        if (stored == null || fetched == null) {
+            return stored != null ? stored : fetched;
+        }
+        return Math.max(stored, fetched);
+    }
+
+    private static List<String> interestsOf(FeedPost post) {
+        return post.getInterests() != null ? post.getInterests() : List.of();
+    }
+
+    private static FeedPost mergeInterests(FeedPost first, FeedPost duplicate) {
+        Set<String> merged = new LinkedHashSet<>(interestsOf(first));
+        merged.addAll(interestsOf(duplicate));
+        first.setInterests(new ArrayList<>(merged));
+        return first;
+    }
+
+    // Update of a stored post: interests to add (post.interests) and, if they changed, its engagement counters
+    private static final class Refresh {
+        private final FeedPost post;
+        private final boolean engagementChanged;
+
+        private Refresh(FeedPost post, boolean engagementChanged) {
+            this.post = post;
+            this.engagementChanged = engagementChanged;
+        }
+
+        private Update update() {
+            Update update = addInterests(new Update(), post);
+            if (engagementChanged) {
+                if (post.getScore() != null) {
+                    update.set("score", post.getScore());
+                }
+                if (post.getCommentCount() != null) {
+                    update.max("commentCount", post.getCommentCount());
+                }
+                if (post.getViewCount() != null) {
+                    update.max("viewCount", post.getViewCount());
+                }
+            }
+            return update;
+        }
+    }
+
+    private List<FeedPost> insertedPosts(List<FeedPost> newPosts, BulkWriteResult result) {
+        List<FeedPost> inserted = new ArrayList<>();
+        for (BulkWriteUpsert upsert : result.getUpserts()) {
+            FeedPost post = newPosts.get(upsert.getIndex());
+            post.setId(upsert.getId().asObjectId().getValue().toHexString());
+            inserted.add(post);
+        }
+        seenLinkFilter.markStored(inserted.stream().map(FeedPost::getLink).collect(Collectors.toList()));
+        inserted.forEach(post -> seenLinkFilter.markTagged(post.getLink(), interestsOf(post)));
+        log.info("Bulk upsert inserted {} of {} new posts.", inserted.size(), newPosts.size());
+        return inserted;
+    }
+}
@@ -0,0 +1,95 @@
+package com.feedfusion2.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.feedfusion2.model.FeedPost;
+import com.feedfusion2.util.BoundedCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JSON encoding of each FeedPost, serialized once with the application ObjectMapper and kept as
+ * immutable bytes keyed by post ID, by which fields are present (a projected view of a post
+ * encodes differently from the full post) and by the values of the fields that change after
+ * insert (engagement counters, clusterId). A reader still holding a post loaded before such a
+ * change therefore caches its JSON under the old values and never serves it for the new ones.
+ * invalidate(id) drops the superseded encodings (FeedPostBulkWriter when a refetch brings new
+ * engagement counters, DuplicateClusterIndex when it clusters posts stored earlier).
+ * Internal fields (@JsonIgnore) are not part of the cached JSON.
+ */
+@Component
+public class FeedPostJsonCache {
+
+    private final ObjectMapper objectMapper;
+    private final BoundedCache<String, Map<List<Object>, byte[]>> encoded; // Post ID -> variant -> JSON
+    private final Counter hits;
+    private final Counter misses;
+
+    @Value("${feed.json-cache.enabled:true}")
+    private boolean enabled;
+
+    @Autowired
+    public FeedPostJsonCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                             @Value("${feed.json-cache.max-entries:20000}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.encoded = new BoundedCache<>(maxEntries);
+        this.hits = meterRegistry.counter("feed.json-cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("feed.json-cache.requests", "result", "miss");
+        meterRegistry.gauge("feed.json-cache.entries", Tags.empty(), encoded, BoundedCache::size);
+    }
+
+    /**
+     * @return The post's JSON; callers must not modify the returned array.
+     */
+    public byte[] get(FeedPost post) throws JsonProcessingException {
+        if (!enabled || post.getId() == null) {
+            return objectMapper.writeValueAsBytes(post); // Not stored yet, nothing stable to key on
+        }
+        List<Object> variant = variant(post);
+        Map<List<Object>, byte[]> variants = encoded.get(post.getId());
+        byte[] json = variants != null ? variants.get(variant) : null;
+        if (json != null) {
+            hits.increment();
+            return json;
+        }
+        misses.increment();
+        json = objectMapper.writeValueAsBytes(post);
+        encoded.computeIfAbsent(post.getId(), id -> new ConcurrentHashMap<>(4)).put(variant, json);
+        return json;
+    }
+
+    /**
+     * Drops the cached JSON of a post whose stored document changed.
+     */
+    public void invalidate(String postId) {
+        encoded.remove(postId);
+    }
+
+    // Shape of the post, and the values of the visible fields that change after insert
+    private static List<Object> variant(FeedPost post) {
+        return Arrays.asList(shape(post), post.getScore(), post.getCommentCount(), post.getViewCount(), post.getClusterId());
+    }
+
+    // Bit per client-visible field that is set; NON_NULL inclusion makes this decide the JSON layout
+    private static int shape(FeedPost post) {
+        int mask = 0;
+        Object[] fields = {post.getTitle(), post.getDescription(), post.getAuthor(), post.getLink(), post.getMediaUrl(),
+                post.getPlatform(), post.getTimestamp(), post.getFetchedAt(), post.getVideoId(),
+                post.getScore(), post.getCommentCount(), post.getViewCount(), post.getClusterId()};
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] != null) {
+                mask |= 1 << i;
+            }
+        }
+        return mask;
+    }
+}
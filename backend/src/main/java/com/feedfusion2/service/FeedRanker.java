@@ -0,0 +1,77 @@
+package com.feedfusion2.service;
+
+import com.feedfusion2.model.FeedPost;
+import com.feedfusion2.util.SearchTerms;
+import com.feedfusion2.util.TopK;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Selects the best k posts of a candidate stream by PostScorer score.
+ * Candidates are scored as they arrive and kept in a bounded heap (TopK), so ranking a window
+ * of n candidates costs O(n log k) and holds k posts, never the whole window.
+ * Recency is scored as of the start of the current feed.ranking.refresh-interval, so the order
+ * only moves with time at interval boundaries, which the ranked feed's ETag names.
+ */
+@Component
+public class FeedRanker {
+
+    // Best score first; ties go to the newer post so the order is stable between requests
+    private static final Comparator<Scored> ORDER = Comparator.<Scored>comparingDouble(scored -> scored.score)
+            .thenComparing(scored -> scored.post.getTimestamp(), Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(scored -> scored.post.getId(), Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final PostScorer postScorer;
+    private final long refreshIntervalMs;
+
+    @Autowired
+    public FeedRanker(PostScorer postScorer,
+                      @Value("${feed.ranking.refresh-interval:PT1M}") Duration refreshInterval) {
+        this.postScorer = postScorer;
+        this.refreshIntervalMs = Math.max(1, refreshInterval.toMillis());
+    }
+
+    /**
+     * @return The instant posts are scored at right now: the start of the current refresh interval.
+     */
+    public Instant rankedAt() {
+        long now = System.currentTimeMillis();
+        return Instant.ofEpochMilli(now - now % refreshIntervalMs);
+    }
+
+    /**
+     * @param candidates Posts to rank, with engagement fields and search terms loaded.
+     * @param interests The user's interests as requested, may be empty.
+     * @param k Number of posts to return.
+     * @return Mono emitting at most k posts, best first.
+     */
+    public Mono<List<FeedPost>> top(Flux<FeedPost> candidates, List<String> interests, int k) {
+        Set<String> interestTerms = new HashSet<>(SearchTerms.of(interests.toArray(new String[0])));
+        Instant now = rankedAt();
+        return candidates
+                .map(post -> new Scored(post, postScorer.score(post, interestTerms, now)))
+                .reduceWith(() -> new TopK<>(k, ORDER), TopK::offer) // A fresh heap per subscription
+                .map(top -> top.toList().stream().map(scored -> scored.post).collect(Collectors.toList()));
+    }
+
+    private static final class Scored {
+        private final FeedPost post;
+        private final double score;
+
+        private Scored(FeedPost post, double score) {
+            this.post = post;
+            this.score = score;
+        }
+    }
+}
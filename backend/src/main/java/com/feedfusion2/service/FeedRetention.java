@@ -0,0 +1,200 @@
+package com.feedfusion2.service;
+
+import com.feedfusion2.model.FeedPost;
+import com.feedfusion2.model.User;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Retention of feed_posts. Every stored post carries expireAt (fetchedAt + feed.retention.ttl)
+ * and MongoDB's TTL monitor deletes it in the background once that time has passed, so
+ * expiry costs no scan or batch job of ours. Bookmarked posts have no expireAt and are kept;
+ * when the last bookmark is removed the post expires again. The monitor's deletions change the
+ * feed without a write of ours, so a periodic check bumps the FeedVersion while posts are about
+ * to expire or awaiting deletion, and once more after.
+ */
+@Component
+public class FeedRetention {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedRetention.class);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final HotPostTier hotPostTier;
+    private final FeedVersion feedVersion;
+    private volatile boolean expiring; // Posts were due by the last check
+    private Disposable expiryCheck;
+
+    @Value("${feed.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${feed.retention.ttl:P30D}")
+    private Duration ttl;
+
+    @Value("${feed.retention.expiry-check-interval:PT30S}")
+    private Duration expiryCheckInterval;
+
+    @Value("${feed.ingest.batch-size:100}")
+    private int batchSize;
+
+    @Autowired
+    public FeedRetention(ReactiveMongoTemplate mongoTemplate, HotPostTier hotPostTier, FeedVersion feedVersion) {
+        this.mongoTemplate = mongoTemplate;
+        this.hotPostTier = hotPostTier;
+        this.feedVersion = feedVersion;
+    }
+
+    /**
+     * Sets expireAt on a post about to be inserted.
+     */
+    public void stamp(FeedPost post) {
+        if (enabled) {
+            post.setExpireAt(expiry(post.getFetchedAt()));
+        }
+    }
+
+    /**
+     * Keeps a post for as long as it is bookmarked: counts the bookmark and clears expireAt.
+     */
+    public Mono<Void> retain(String postId) {
+        Update update = new Update().inc("bookmarkCount", 1).unset("expireAt");
+        return mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(postId)), update,
+                        FindAndModifyOptions.options().returnNew(true), FeedPost.class)
+                .doOnNext(post -> hotPostTier.setExpireAt(post, null))
+                .then();
+    }
+
+    /**
+     * Uncounts a removed bookmark; without bookmarks left, the post expires ttl after it was
+     * fetched (or right away if that has passed).
+     */
+    public Mono<Void> release(String postId) {
+        Query bookmarked = Query.query(Criteria.where("_id").is(postId).and("bookmarkCount").gt(0));
+        return mongoTemplate.findAndModify(bookmarked, new Update().inc("bookmarkCount", -1),
+                        FindAndModifyOptions.options().returnNew(true), FeedPost.class)
+                .filter(post -> enabled && post.getBookmarkCount() <= 0)
+                .flatMap(post -> {
+                    Instant expireAt = expiry(post.getFetchedAt());
+                    // Conditional on the count, so a bookmark added in between wins
+                    Query unbookmarked = Query.query(Criteria.where("_id").is(postId).and("bookmarkCount").lte(0));
+                    return mongoTemplate.updateFirst(unbookmarked, new Update().set("expireAt", expireAt), FeedPost.class)
+                            .filter(result -> result.getModifiedCount() > 0)
+                            .doOnNext(result -> {
+                                hotPostTier.setExpireAt(post, expireAt);
+                                if (!expireAt.isAfter(Instant.now())) {
+                                    feedVersion.bump(); // Hidden from the hot tier right away
+                                }
+                            });
+                })
+                .then();
+    }
+
+    /**
+     * Starts the expiry check, and brings posts stored before retention existed (or while it was
+     * disabled) under it: recounts bookmarks from the users' bookmark sets, then sets expireAt on
+     * every unbookmarked post that has none. Skipped when no post lacks both fields, so the
+     * recount runs once rather than on every start.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!enabled) {
+            return;
+        }
+        expiryCheck = Flux.interval(expiryCheckInterval, expiryCheckInterval)
+                .concatMap(tick -> checkExpiry().onErrorResume(e -> {
+                    log.warn("Expiry check failed: {}", e.getMessage());
+                    return Mono.empty();
+                }))
+                .subscribe();
+        Query untracked = Query.query(Criteria.where("expireAt").exists(false).and("bookmarkCount").exists(false));
+        mongoTemplate.exists(untracked, FeedPost.class)
+                .filter(found -> found)
+                .flatMap(found -> countBookmarks().then(expireUnbookmarked()))
+                .subscribe(
+                        count -> {
+                            if (count > 0) {
+                                log.info("Set expireAt on {} stored posts (ttl {}).", count, ttl);
+                            }
+                        },
+                        e -> log.error("Failed to backfill post retention: {}", e.getMessage()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (expiryCheck != null) {
+            expiryCheck.dispose();
+        }
+    }
+
+    // Bumps the version while posts expire before the next check or await the TTL monitor, and
+    // at the check after, which follows their deletion
+    private Mono<Void> checkExpiry() {
+        Query due = Query.query(Criteria.where("expireAt").lte(Instant.now().plus(expiryCheckInterval)));
+        return mongoTemplate.exists(due, FeedPost.class)
+                .doOnNext(found -> {
+                    if (found || expiring) {
+                        feedVersion.bump();
+                    }
+                    expiring = found;
+                })
+                .then();
+    }
+
+    private Mono<Void> countBookmarks() {
+        Aggregation counts = Aggregation.newAggregation(
+                Aggregation.unwind("bookmarkedPostIds"),
+                Aggregation.group("bookmarkedPostIds").count().as("count"));
+        return mongoTemplate.aggregate(counts, User.class, Document.class)
+                .buffer(batchSize)
+                .concatMap(batch -> {
+                    ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FeedPost.class);
+                    batch.forEach(count -> bulk.updateOne(Query.query(Criteria.where("_id").is(count.getString("_id"))),
+                            new Update().set("bookmarkCount", count.getInteger("count")).unset("expireAt")));
+                    return bulk.execute();
+                })
+                .then();
+    }
+
+    private Mono<Long> expireUnbookmarked() {
+        Query query = Query.query(Criteria.where("expireAt").exists(false).and("bookmarkCount").not().gt(0));
+        query.fields().include("fetchedAt");
+        return mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(FeedPost.class))
+                .buffer(batchSize)
+                .concatMap(batch -> {
+                    ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FeedPost.class);
+                    for (Document post : batch) {
+                        Date fetchedAt = post.getDate("fetchedAt");
+                        bulk.updateOne(Query.query(Criteria.where("_id").is(post.get("_id"))),
+                                new Update().set("expireAt", expiry(fetchedAt != null ? fetchedAt.toInstant() : null)));
+                    }
+                    return bulk.execute().map(result -> (long) result.getModifiedCount());
+                })
+                .reduce(0L, Long::sum);
+    }
+
+    // A time already passed is deleted on the TTL monitor's next pass (about once a minute)
+    private Instant expiry(Instant fetchedAt) {
+        return (fetchedAt != null ? fetchedAt : Instant.now()).plus(ttl);
+    }
+}
@@ -269,135 +269,297 @@
 
 package com.feedfusion2.service; // Ensure package/imports match your project
 
+import com.feedfusion2.dto.FeedCursor;
+import com.feedfusion2.dto.FeedPage;
+import com.feedfusion2.dto.FeedQuery;
+import com.feedfusion2.dto.FeedRequest;
+import com.feedfusion2.dto.FeedSort;
+import com.feedfusion2.dto.FeedView;
 import com.feedfusion2.model.FeedPost;
-import com.feedfusion2.repository.FeedPostRepository; // Assuming blocking repository
+import com.feedfusion2.repository.FeedPostRepository;
+import com.feedfusion2.util.ETags;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils; // For checking empty strings
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.function.Predicate;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class FeedService {
 
     private static final Logger log = LoggerFactory.getLogger(FeedService.class);
-    private final RedditService redditService; // Assuming these return Flux<FeedPost>
-    private final YouTubeService youtubeService; // Assuming these return Flux<FeedPost>
-    private final FeedPostRepository feedPostRepository; // Assuming blocking repository
+    private final FeedIngestionService feedIngestionService;
+    private final FeedPostRepository feedPostRepository;
+    private final HotPostTier hotPostTier;
+    private final TimelineService timelineService;
+    private final FeedVersion feedVersion;
+    private final FeedRanker feedRanker;
+    private final DuplicateClusterIndex duplicateClusterIndex;
+
+    @Value("${feed.query.default-limit:50}")
+    private int defaultLimit;
+
+    @Value("${feed.query.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${feed.query.stream-max-limit:1000}")
+    private int streamMaxLimit; // Streamed posts are never held together, so the cap can be higher
+
+    @Value("${feed.ranking.candidate-window:500}")
+    private int rankingWindow; // Newest matching posts scored for sort=ranked
 
     @Autowired
-    public FeedService(RedditService redditService, YouTubeService youtubeService, FeedPostRepository feedPostRepository) {
-        this.redditService = redditService;
-        this.youtubeService = youtubeService;
+    public FeedService(FeedIngestionService feedIngestionService, FeedPostRepository feedPostRepository,
+                       HotPostTier hotPostTier, TimelineService timelineService, FeedVersion feedVersion,
+                       FeedRanker feedRanker, DuplicateClusterIndex duplicateClusterIndex) {
+        this.feedIngestionService = feedIngestionService;
         this.feedPostRepository = feedPostRepository;
+        this.hotPostTier = hotPostTier;
+        this.timelineService = timelineService;
+        this.feedVersion = feedVersion;
+        this.feedRanker = feedRanker;
+        this.duplicateClusterIndex = duplicateClusterIndex;
     }
 
     /**
-     * Fetches posts based on interests, saves new ones, retrieves all from DB,
-     * and then applies platform and keyword filters.
+     * Registers the interests for background ingestion and queries one page of stored posts.
+     * With interests, only posts fetched for at least one of them are returned (the multikey
+     * interests index keeps this a bounded range scan); since/until bound the timestamp range read.
+     * With feed.timeline.enabled, the page comes from the user's materialized timeline (only
+     * posts of their interests) once it holds enough posts; its cursor keeps the next pages there. Recent pages are served from the
+     * in-memory HotPostTier. Everything else is evaluated by Mongo (filters, cursor seek, sort,
+     * limit and the view's projection), so a deep page costs the same as the first one.
+     * sort=ranked scores the newest feed.ranking.candidate-window matching posts and keeps the best.
+     * Near-duplicates (same clusterId) are collapsed to the first post of their cluster; the cursor
+     * carries the clusters shown so far, so their other posts are skipped on later pages too.
+     * Never waits on upstream Reddit/YouTube calls; new interests show up once ingested.
      *
-     * @param platform Optional platform filter.
-     * @param keyword Optional keyword filter.
-     * @param interests List of interests to fetch posts for.
-     * @return Flux emitting filtered FeedPost objects.
+     * @param request Feed parameters as sent by the client; limit is capped at feed.query.max-limit.
+     * @param username Authenticated user, or null; selects the user's timeline.
+     * @return Mono emitting the page; errors with IllegalArgumentException on an invalid cursor, sort,
+     *         view, field or time window, or with the Mongo error if the query fails.
      */
-    public Flux<FeedPost> getFilteredFeed(String platform, String keyword, List<String> interests) {
-        log.info("Starting filtered feed retrieval for platform: '{}', keyword: '{}', interests: {}", platform, keyword, interests);
+    public Mono<FeedPage> getFeedPage(FeedRequest request, String username) {
+        List<String> interests = request.interestList();
+        log.info("Starting filtered feed retrieval for platform: '{}', keyword: '{}', interests: {}", request.getPlatform(), request.getKeyword(), interests);
 
-        // 1. Fetch and Save Logic (based on interests)
-        Mono<String> fetchAndSaveMono = fetchAndSaveByInterests(interests);
+        FeedQuery query;
+        try {
+            query = buildQuery(request);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(e);
+        }
 
-        // 2. Retrieve All from DB (after fetch/save completes)
-        Mono<List<FeedPost>> allPostsFromDbMono = fetchAndSaveMono
-                .flatMap(result -> {
-                    log.info("Retrieving all posts from DB after fetch/save step ({})", result);
-                    return Mono.fromCallable(() ->
-                                    feedPostRepository.findAll(Sort.by(Sort.Direction.DESC, "timestamp"))
-                            )
-                            .subscribeOn(Schedulers.boundedElastic());
-                })
-                .doOnError(e -> log.error("Error retrieving posts from DB: {}", e.getMessage(), e))
-                .onErrorReturn(List.of()); // Return empty list if DB fetch fails
+        // 1. Hand interests to the ingestion engine (non-blocking, refresh happens on its schedulers)
+        feedIngestionService.trackInterests(interests);
 
-        // 3. Apply Filters to the retrieved list
-        return allPostsFromDbMono
-                .flatMapMany(allPosts -> {
-                    log.debug("Applying filters to {} posts retrieved from DB.", allPosts.size());
-                    // Create predicates for filtering
-                    Predicate<FeedPost> platformFilter = post -> !StringUtils.hasText(platform) // No platform filter OR
-                            || (post.getPlatform() != null && post.getPlatform().equalsIgnoreCase(platform.trim())); // Platform matches (case-insensitive)
+        // 2. Query only the requested page from Mongo, plus one post to tell whether another page follows
+        //    and a few spare posts to fill the slots of collapsed near-duplicates
+        int pageSize = effectiveLimit(request.getLimit());
+        query.setLimit(pageSize + 1 + collapseSlack(pageSize));
 
-                    Predicate<FeedPost> keywordFilter = post -> !StringUtils.hasText(keyword) // No keyword filter OR
-                            || (post.getTitle() != null && post.getTitle().toLowerCase().contains(keyword.trim().toLowerCase())) // Title contains keyword OR
-                            || (post.getDescription() != null && post.getDescription().toLowerCase().contains(keyword.trim().toLowerCase())); // Description contains keyword
+        Optional<List<FeedCursor>> timelinePage = query.getSort() == FeedSort.RANKED
+                ? Optional.empty() : timelineService.readPage(username, interests, query);
+        Mono<List<FeedPost>> found = query.getSort() == FeedSort.RANKED
+                ? rank(query, interests, query.getLimit())
+                : timelinePage.map(positions -> hydrate(positions, query.getFields()))
+                        .orElseGet(() -> findPosts(query).collectList());
+        return found
+                .map(posts -> toPage(posts, timelinePage.orElse(null), pageSize, query))
+                .doOnSuccess(page -> log.debug("Feed query returned {} posts for platform: '{}', keyword: '{}'", page.getPosts().size(), request.getPlatform(), request.getKeyword()))
+                .doOnError(e -> log.error("Error retrieving posts from DB: {}", e.getMessage(), e));
+    }
 
-                    // Apply filters using Flux stream operations
-                    return Flux.fromIterable(allPosts)
-                            .filter(platformFilter)
-                            .filter(keywordFilter)
-                            .doOnComplete(() -> log.info("Filtering complete for platform: '{}', keyword: '{}'", platform, keyword));
-                });
+    /**
+     * ETag of the page getFeedPage would return for this request. Computed from the feed
+     * version and the request alone, so a matching If-None-Match costs no query at all.
+     * A ranked page also depends on the time its recency is scored at (FeedRanker.rankedAt).
+     *
+     * @param representation Media type the page is written in (Representations.negotiate); each
+     *                       representation gets its own strong ETag.
+     * @return Quoted ETag.
+     */
+    public String getFeedETag(FeedRequest request, String username, MediaType representation) {
+        return ETags.of("feed", feedVersion.current(), request, username, representation, // FeedRequest.toString lists every parameter
+                isRanked(request) ? feedRanker.rankedAt() : null);
     }
 
+    // An invalid sort fails the page request itself, its ETag need not tell
+    private static boolean isRanked(FeedRequest request) {
+        try {
+            return FeedSort.parse(request.getSort()) == FeedSort.RANKED;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
 
     /**
-     * Helper method to fetch posts by interests and save them.
-     * Encapsulates the logic previously in getAggregatedFeed.
+     * Same query as getFeedPage, but emits posts as they come off the Mongo cursor instead of
+     * collecting the page first. Demand from the response writer is passed through to the
+     * cursor, so a slow client only holds one driver batch in memory.
      *
-     * @param interests List of interests.
-     * @return A Mono signaling completion ("Save process completed" or "No posts to save").
+     * @param request Feed parameters as sent by the client; limit is capped at feed.query.stream-max-limit.
+     * @return Flux emitting filtered FeedPost objects in the requested order; errors with
+     *         IllegalArgumentException on an invalid cursor, sort, view, field or time window.
      */
-    private Mono<String> fetchAndSaveByInterests(List<String> interests) {
-        log.debug("Fetching and saving posts for interests: {}", interests);
-        if (interests == null || interests.isEmpty()) {
-            log.debug("No interests provided, skipping fetch and save.");
-            return Mono.just("No interests provided");
+    public Flux<FeedPost> streamFeed(FeedRequest request) {
+        List<String> interests = request.interestList();
+        log.info("Starting feed stream for platform: '{}', keyword: '{}', interests: {}", request.getPlatform(), request.getKeyword(), interests);
+
+        FeedQuery query;
+        try {
+            query = buildQuery(request);
+        } catch (IllegalArgumentException e) {
+            return Flux.error(e);
         }
+        feedIngestionService.trackInterests(interests);
+        Integer limit = request.getLimit();
+        int streamLimit = limit == null || limit <= 0 ? defaultLimit : Math.min(limit, streamMaxLimit);
+        query.setLimit(streamLimit + collapseSlack(streamLimit));
+
+        Flux<FeedPost> posts = query.getSort() == FeedSort.RANKED
+                ? rank(query, interests, query.getLimit()).flatMapIterable(ranked -> ranked)
+                : findPosts(query);
+        Set<String> shown = query.getAfter() != null ? Set.copyOf(query.getAfter().getClusters()) : Set.of();
+        return posts
+                .filter(post -> post.getClusterId() == null || !shown.contains(post.getClusterId())) // Shown on an earlier page
+                .distinct(post -> post.getClusterId() != null ? post.getClusterId() : post) // First post of each cluster
+                .take(streamLimit)
+                .doOnComplete(() -> log.debug("Feed stream complete for platform: '{}', keyword: '{}'", request.getPlatform(), request.getKeyword()))
+                .doOnError(e -> log.error("Error streaming posts from DB: {}", e.getMessage(), e))
+                .onErrorResume(e -> Flux.empty()); // End the stream cleanly; posts already sent stay valid
+    }
+
+    private Flux<FeedPost> findPosts(FeedQuery query) {
+        return hotPostTier.find(query)
+                .map(posts -> Flux.fromIterable(posts).map(post -> FeedView.project(post, query.getFields())))
+                .orElseGet(() -> feedPostRepository.findFeed(query));
+    }
 
-        // Fetch posts reactively
-        Flux<FeedPost> fetchedPostsFlux = Flux.fromIterable(interests)
-                .flatMap(interest -> {
-                    log.debug("Fetching sources for interest: {}", interest);
-                    Flux<FeedPost> redditFlux = redditService.fetchRedditPosts(interest)
-                            .doOnError(e -> log.error("[Reddit] Error fetching for interest '{}': {}", interest, e.getMessage()))
-                            .onErrorResume(e -> Flux.empty()); // Continue if Reddit fails
+    // Best k of the newest rankingWindow posts matching the filters; candidates are read whole,
+    // the scorer needs engagement and search terms, and the view is applied to the k kept
+    private Mono<List<FeedPost>> rank(FeedQuery query, List<String> interests, int k) {
+        FeedQuery candidates = new FeedQuery();
+        candidates.setPlatform(query.getPlatform());
+        candidates.setInterests(query.getInterests());
+        candidates.setSince(query.getSince());
+        candidates.setUntil(query.getUntil());
+        candidates.setKeyword(query.getKeyword());
+        candidates.setLimit(Math.max(rankingWindow, k));
+        return feedRanker.top(findPosts(candidates), interests, k)
+                .map(ranked -> ranked.stream()
+                        .map(post -> FeedView.project(post, query.getFields()))
+                        .collect(Collectors.toList()));
+    }
+
+    // Loads the posts of a timeline page in one query, keeping the timeline order
+    private Mono<List<FeedPost>> hydrate(List<FeedCursor> positions, List<String> fields) {
+        List<String> ids = positions.stream().map(FeedCursor::getId).collect(Collectors.toList());
+        return feedPostRepository.findAllById(ids, fields)
+                .collectMap(FeedPost::getId)
+                .map(byId -> ids.stream()
+                        .map(byId::get)
+                        .filter(Objects::nonNull) // Deleted since it was fanned out
+                        .collect(Collectors.toList()));
+    }
 
-                    Flux<FeedPost> youtubeFlux = youtubeService.fetchYouTubeVideos(interest)
-                            .doOnError(e -> log.error("[YouTube] Error fetching for interest '{}': {}", interest, e.getMessage()))
-                            .onErrorResume(e -> Flux.empty()); // Continue if YouTube fails
+    // Normalized filters, cursor, sort and projection; the limit is set by the caller
+    private FeedQuery buildQuery(FeedRequest request) {
+        String platform = request.getPlatform();
+        String keyword = request.getKeyword();
+        String cursor = request.getCursor();
+        FeedQuery query = new FeedQuery();
+        query.setAfter(StringUtils.hasText(cursor) ? FeedCursor.decode(cursor.trim()) : null);
+        query.setPlatform(StringUtils.hasText(platform) && !platform.trim().equalsIgnoreCase("all")
+                ? platform.trim().toLowerCase(Locale.ROOT) : null);
+        query.setKeyword(StringUtils.hasText(keyword) ? keyword.trim() : null);
+        List<String> interests = request.interestList().stream()
+                .map(FeedIngestionService::normalize)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        query.setInterests(interests.isEmpty() ? null : interests);
+        query.setSince(parseInstant("since", request.getSince()));
+        query.setUntil(parseInstant("until", request.getUntil()));
+        if (query.getSince() != null && query.getUntil() != null && !query.getSince().isBefore(query.getUntil())) {
+            throw new IllegalArgumentException("since must be before until");
+        }
+        query.setFields(FeedView.resolve(request.getView(), request.getFields()));
+        // Relevance needs a keyword to score against; without one the feed is simply newest first
+        FeedSort feedSort = FeedSort.parse(request.getSort());
+        query.setSort(feedSort == FeedSort.RELEVANCE && query.getKeyword() == null ? FeedSort.NEWEST : feedSort);
+        if (query.getSort() != FeedSort.NEWEST && query.getAfter() != null) {
+            throw new IllegalArgumentException("Cursors are not supported with sort=" + query.getSort().name().toLowerCase(Locale.ROOT));
+        }
+        return query;
+    }
 
-                    return Flux.merge(redditFlux, youtubeFlux);
-                });
+    private static Instant parseInstant(String name, String value) {
+        if (!StringUtils.hasText(value)) {
+            return null;
+        }
+        try {
+            return Instant.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value + " (expected an ISO-8601 instant)");
+        }
+    }
 
-        // Process fetched posts: save new ones
-        return fetchedPostsFlux
-                .collectList()
-                .flatMap(newlyFetchedPosts -> {
-                    if (!newlyFetchedPosts.isEmpty()) {
-                        log.info("Attempting to save {} potentially new posts.", newlyFetchedPosts.size());
-                        return Flux.fromIterable(newlyFetchedPosts)
-                                .flatMap(postToSave ->
-                                        Mono.fromCallable(() -> feedPostRepository.save(postToSave)) // Blocking save
-                                                .subscribeOn(Schedulers.boundedElastic()) // Schedule blocking call
-                                                .doOnError(e -> log.error("Error saving post {}: {}", postToSave.getLink(), e.getMessage()))
-                                                .onErrorResume(e -> Mono.empty()) // Skip post on save error
-                                )
-                                .then(Mono.just("Save process completed")); // Signal completion after all saves attempted
-                    } else {
-                        log.info("No new posts fetched, skipping save.");
-                        return Mono.just("No posts to save"); // Signal skip
-                    }
-                });
+    // Spare posts read per page when near-duplicates are collapsed
+    private int collapseSlack(int pageSize) {
+        return duplicateClusterIndex.isEnabled() ? Math.max(1, pageSize / 4) : 0;
     }
 
-    // Consider removing getAggregatedFeed and searchAndFilterFeed methods
-    // if they are no longer directly used by the controller.
+    // Keeps the first post of each cluster not shown on an earlier page, up to pageSize; the cursor
+    // continues after the last post looked at, so collapsed duplicates are not read again on the next page.
+    // Whether another page follows depends on how much the source returned: for a timeline page
+    // (timeline not null) that is its positions, some of which may not hydrate any more
+    private FeedPage toPage(List<FeedPost> posts, List<FeedCursor> timeline, int pageSize, FeedQuery query) {
+        Set<String> clusters = new LinkedHashSet<>(query.getAfter() != null ? query.getAfter().getClusters() : List.of());
+        List<FeedPost> page = new ArrayList<>();
+        int scanned = 0;
+        while (scanned < posts.size() && page.size() < pageSize) {
+            FeedPost post = posts.get(scanned++);
+            if (post.getClusterId() == null || clusters.add(post.getClusterId())) {
+                page.add(post);
+            }
+        }
+        int read = timeline != null ? timeline.size() : posts.size();
+        boolean exhausted = scanned == posts.size();
+        if (exhausted && read < query.getLimit()) {
+            return new FeedPage(page, null); // Last page
+        }
+        if (query.getSort() != FeedSort.NEWEST) {
+            return new FeedPage(page, null); // Cursors encode a timestamp position, which only NEWEST follows
+        }
+        FeedCursor last = exhausted && timeline != null ? timeline.get(read - 1) : FeedCursor.of(posts.get(scanned - 1));
+        if (last.getTimestamp() == null) {
+            return new FeedPage(page, null); // Posts without a timestamp sort last and cannot be seeked past
+        }
+        List<String> shown = new ArrayList<>(clusters);
+        shown = shown.subList(Math.max(0, shown.size() - FeedCursor.MAX_CLUSTERS), shown.size()); // Keep the most recent
+        return new FeedPage(page, new FeedCursor(last.getTimestamp(), last.getId(), timeline != null, shown).encode());
+    }
 
+    private int effectiveLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return defaultLimit;
+        }
+        return Math.min(limit, maxLimit);
+    }
 }
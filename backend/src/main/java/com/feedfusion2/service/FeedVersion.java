@@ -0,0 +1,25 @@
+package com.feedfusion2.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generation counter of the stored feed, bumped whenever a post is inserted, retagged or expires.
+ * Feed ETags are derived from it, so an unchanged generation means an unchanged response.
+ * Engagement counter refreshes are the exception: they show up with the next bump.
+ * Starts at the startup time, so tags issued before a restart never match afterwards.
+ */
+@Component
+public class FeedVersion {
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public long current() {
+        return version.get();
+    }
+
+    public void bump() {
+        version.incrementAndGet();
+    }
+}
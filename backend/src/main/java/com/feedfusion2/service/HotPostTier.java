@@ -0,0 +1,296 @@
+package com.feedfusion2.service;
+
+import com.feedfusion2.dto.FeedCursor;
+import com.feedfusion2.dto.FeedQuery;
+import com.feedfusion2.dto.FeedSort;
+import com.feedfusion2.model.FeedPost;
+import com.feedfusion2.repository.FeedPostRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-process copy of the newest posts of each platform, in feed order (timestamp, then id, descending).
+ * Each platform shard holds at most feed.hot-tier.posts-per-platform posts and is complete above its
+ * floor: every stored post newer than the floor is in the shard. Queries whose whole page lies above
+ * the floor are answered here; keyword queries and older pages go to Mongo.
+ */
+@Component
+public class HotPostTier {
+
+    private static final Logger log = LoggerFactory.getLogger(HotPostTier.class);
+
+    private final FeedPostRepository feedPostRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final Map<String, Shard> shards = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private volatile boolean ready = false; // Misses everything until warmed, the shards may be incomplete
+
+    @Value("${feed.hot-tier.enabled:true}")
+    private boolean enabled;
+
+    @Value("${feed.hot-tier.posts-per-platform:2000}")
+    private int capacity;
+
+    @Autowired
+    public HotPostTier(FeedPostRepository feedPostRepository, ReactiveMongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.feedPostRepository = feedPostRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.hits = meterRegistry.counter("feed.hot-tier.requests", "result", "hit");
+        this.misses = meterRegistry.counter("feed.hot-tier.requests", "result", "miss");
+        Gauge.builder("feed.hot-tier.posts", shards, map -> map.values().stream().mapToInt(shard -> shard.size).sum())
+                .description("Posts held by the in-memory hot tier")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the newest posts of every stored platform in the background.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        if (!enabled) {
+            return;
+        }
+        mongoTemplate.findDistinct("platform", FeedPost.class, String.class)
+                .concatMap(platform -> {
+                    FeedQuery query = new FeedQuery();
+                    query.setPlatform(platform);
+                    query.setLimit(capacity);
+                    return feedPostRepository.findFeed(query)
+                            .collectList()
+                            .doOnNext(posts -> shard(platform).load(posts, posts.size() >= capacity));
+                })
+                .then()
+                .subscribe(
+                        unused -> { },
+                        e -> log.error("Failed to warm hot tier, serving every feed query from Mongo: {}", e.getMessage()),
+                        () -> {
+                            ready = true;
+                            log.info("Hot tier warmed: {}", shards.values().stream()
+                                    .map(shard -> shard.platform + "=" + shard.size).collect(Collectors.toList()));
+                        });
+    }
+
+    /**
+     * Adds a freshly inserted post (with its id set).
+     */
+    public void add(FeedPost post) {
+        if (!enabled || post.getId() == null || post.getTimestamp() == null || post.getPlatform() == null) {
+            return;
+        }
+        shard(post.getPlatform()).add(post);
+    }
+
+    /**
+     * Adds interests to a post the tier may hold, after they were added to the stored post.
+     *
+     * @param post Stored post (id, timestamp and platform set).
+     */
+    public void tag(FeedPost post, Collection<String> interests) {
+        if (!enabled || post.getId() == null || post.getTimestamp() == null || post.getPlatform() == null) {
+            return;
+        }
+        Shard shard = shards.get(post.getPlatform());
+        if (shard != null) {
+            shard.tag(FeedCursor.of(post), interests);
+        }
+    }
+
+    /**
+     * Mirrors a change of the stored post's expireAt (see FeedRetention) on the copy the tier may hold.
+     *
+     * @param post Stored post (id, timestamp and platform set).
+     * @param expireAt New expiry, or null if the post is kept.
+     */
+    public void setExpireAt(FeedPost post, Instant expireAt) {
+        if (!enabled || post.getId() == null || post.getTimestamp() == null || post.getPlatform() == null) {
+            return;
+        }
+        Shard shard = shards.get(post.getPlatform());
+        FeedPost held = shard != null ? shard.posts.get(FeedCursor.of(post)) : null;
+        if (held != null) {
+            held.setExpireAt(expireAt);
+        }
+    }
+
+    /**
+     * Mirrors new engagement counters of the stored post on the copy the tier may hold.
+     *
+     * @param post Stored post (id, timestamp and platform set) carrying the stored counters.
+     */
+    public void setEngagement(FeedPost post) {
+        if (!enabled || post.getId() == null || post.getTimestamp() == null || post.getPlatform() == null) {
+            return;
+        }
+        Shard shard = shards.get(post.getPlatform());
+        FeedPost held = shard != null ? shard.posts.get(FeedCursor.of(post)) : null;
+        if (held != null) {
+            held.setScore(post.getScore());
+            held.setCommentCount(post.getCommentCount());
+            held.setViewCount(post.getViewCount());
+        }
+    }
+
+    /**
+     * Answers the query from memory if the tier is guaranteed to hold the whole result.
+     *
+     * @return The posts in feed order, or empty if the query has to go to Mongo.
+     */
+    public Optional<List<FeedPost>> find(FeedQuery query) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Optional<List<FeedPost>> result = ready && query.getKeyword() == null && query.getSort() == FeedSort.NEWEST
+                ? findInShards(query) : Optional.empty();
+        (result.isPresent() ? hits : misses).increment();
+        return result;
+    }
+
+    private Optional<List<FeedPost>> findInShards(FeedQuery query) {
+        List<Shard> candidates = new ArrayList<>();
+        if (query.getPlatform() != null) {
+            Shard shard = shards.get(query.getPlatform());
+            if (shard == null) {
+                return Optional.empty(); // Platform not seen at warm-up, nothing is known about it
+            }
+            candidates.add(shard);
+        } else {
+            candidates.addAll(shards.values());
+        }
+
+        FeedCursor after = query.getAfter();
+        Instant now = Instant.now();
+        List<Map.Entry<FeedCursor, FeedPost>> merged = new ArrayList<>();
+        for (Shard shard : candidates) {
+            Iterator<Map.Entry<FeedCursor, FeedPost>> entries = (after == null ? shard.posts : shard.posts.tailMap(after, false))
+                    .entrySet().iterator();
+            int taken = 0;
+            while (taken < query.getLimit() && entries.hasNext()) {
+                Map.Entry<FeedCursor, FeedPost> entry = entries.next();
+                if (matches(entry.getValue(), query, now)) {
+                    merged.add(entry);
+                    taken++;
+                }
+            }
+        }
+        merged.sort(Map.Entry.comparingByKey(FeedCursor.FEED_ORDER));
+        List<Map.Entry<FeedCursor, FeedPost>> page = merged.subList(0, Math.min(query.getLimit(), merged.size()));
+
+        // The floors are read after iterating: eviction raises the floor before removing a post, so a
+        // page that missed an evicted post is always caught here
+        FeedCursor last = page.isEmpty() ? after : page.get(page.size() - 1).getKey();
+        boolean pageFull = page.size() == query.getLimit();
+        for (Shard shard : candidates) {
+            FeedCursor floor = shard.floor;
+            if (floor != null && (!pageFull || last == null || FeedCursor.FEED_ORDER.compare(last, floor) >= 0)) {
+                return Optional.empty(); // Page reaches below what this shard is complete for
+            }
+        }
+        return Optional.of(page.stream().map(Map.Entry::getValue).collect(Collectors.toList()));
+    }
+
+    // Filters Mongo applies in the query (interests, time window) or by expiry (TTL index)
+    private static boolean matches(FeedPost post, FeedQuery query, Instant now) {
+        if (post.getExpireAt() != null && !post.getExpireAt().isAfter(now)) {
+            return false; // Deleted, or about to be, by the TTL monitor
+        }
+        if (query.getSince() != null && post.getTimestamp().isBefore(query.getSince())) {
+            return false;
+        }
+        if (query.getUntil() != null && !post.getTimestamp().isBefore(query.getUntil())) {
+            return false;
+        }
+        if (query.getInterests() == null) {
+            return true;
+        }
+        List<String> tagged = post.getInterests();
+        return tagged == null || tagged.stream().anyMatch(query.getInterests()::contains); // Untagged: stored before tagging, like Mongo's $in null
+    }
+
+    private Shard shard(String platform) {
+        return shards.computeIfAbsent(platform, Shard::new);
+    }
+
+    // Newest posts of one platform; writers are serialized, readers never lock
+    private final class Shard {
+        private final String platform;
+        private final ConcurrentSkipListMap<FeedCursor, FeedPost> posts = new ConcurrentSkipListMap<>(FeedCursor.FEED_ORDER);
+        private volatile FeedCursor floor; // Oldest evicted position; null while the shard holds every post of the platform
+        private volatile int size;
+
+        private Shard(String platform) {
+            this.platform = platform;
+        }
+
+        private synchronized void load(List<FeedPost> newest, boolean truncated) {
+            // Legacy posts without a timestamp sort after every other post; leave them to Mongo
+            List<FeedPost> timed = newest.stream().filter(post -> post.getTimestamp() != null).collect(Collectors.toList());
+            timed.forEach(this::put);
+            if ((truncated || timed.size() < newest.size()) && !timed.isEmpty()) {
+                raiseFloor(FeedCursor.of(timed.get(timed.size() - 1)));
+            }
+            trim();
+        }
+
+        private synchronized void add(FeedPost post) {
+            if (floor != null && FeedCursor.FEED_ORDER.compare(FeedCursor.of(post), floor) >= 0) {
+                return; // Older than the window this shard is complete for
+            }
+            put(post);
+            trim();
+        }
+
+        private synchronized void tag(FeedCursor key, Collection<String> interests) {
+            FeedPost post = posts.get(key);
+            if (post == null) {
+                return;
+            }
+            Set<String> merged = new LinkedHashSet<>(post.getInterests() != null ? post.getInterests() : List.of());
+            merged.addAll(interests);
+            post.setInterests(List.copyOf(merged)); // Replaced, never mutated, so concurrent readers see either list whole
+        }
+
+        private void put(FeedPost post) {
+            if (posts.put(FeedCursor.of(post), post) == null) {
+                size++;
+            }
+        }
+
+        private void trim() {
+            while (size > capacity) {
+                Map.Entry<FeedCursor, FeedPost> oldest = posts.lastEntry();
+                raiseFloor(oldest.getKey()); // Before removing, see findInShards
+                posts.remove(oldest.getKey());
+                size--;
+            }
+        }
+
+        private void raiseFloor(FeedCursor key) {
+            if (floor == null || FeedCursor.FEED_ORDER.compare(key, floor) < 0) {
+                floor = key;
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.feedfusion2.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs every BCrypt hash and check on its own bounded scheduler: a fixed number of threads
+ * (security.bcrypt.threads) and a bounded queue (security.bcrypt.queue, in total for the pool)
+ * in front of them.
+ * When the queue is full the call fails at once with RejectedExecutionException (answered
+ * with 503), so a login burst queues here instead of taking threads or CPU from feed traffic.
+ */
+@Component
+public class PasswordHashing {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashing.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final Scheduler scheduler;
+    private final Counter rejected;
+
+    @Autowired
+    public PasswordHashing(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+                           @Value("${security.bcrypt.threads:0}") int threads, // 0: half the cores
+                           @Value("${security.bcrypt.queue:64}") int queue) {
+        this.passwordEncoder = passwordEncoder;
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        // The scheduler bounds the queue of each thread, so the pool's queue is split among them (rounded up)
+        int queuePerThread = Math.max(1, (queue + poolSize - 1) / poolSize);
+        this.scheduler = Schedulers.newBoundedElastic(poolSize, queuePerThread, "bcrypt");
+        this.rejected = meterRegistry.counter("auth.bcrypt.rejected");
+        log.info("Password hashing on {} threads, at most {} queued.", poolSize, poolSize * queuePerThread);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.dispose();
+    }
+
+    /**
+     * @return Mono emitting the hash; errors with RejectedExecutionException if the pool is saturated.
+     */
+    public Mono<String> encode(String rawPassword) {
+        return offload(Mono.fromCallable(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    /**
+     * @return Mono emitting whether the password matches the hash; errors with
+     *         RejectedExecutionException if the pool is saturated.
+     */
+    public Mono<Boolean> matches(String rawPassword, String encodedPassword) {
+        return offload(Mono.fromCallable(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * The hashing scheduler, for Spring Security components that hash passwords themselves.
+     */
+    public Scheduler scheduler() {
+        return scheduler;
+    }
+
+    private <T> Mono<T> offload(Mono<T> hashing) {
+        return hashing
+                .subscribeOn(scheduler)
+                .doOnError(RejectedExecutionException.class, e -> rejected.increment());
+    }
+}
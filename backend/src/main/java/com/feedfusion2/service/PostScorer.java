@@ -0,0 +1,20 @@
+package com.feedfusion2.service;
+
+import com.feedfusion2.model.FeedPost;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Scoring function behind sort=ranked; higher scores rank first.
+ * EngagementRecencyScorer is the default, a @Primary PostScorer bean replaces it.
+ */
+public interface PostScorer {
+
+    /**
+     * @param post Candidate post with its engagement counters and search terms loaded.
+     * @param interestTerms Search terms of the requesting user's interests (SearchTerms.of), may be empty.
+     * @param now Same instant for every candidate of one request.
+     */
+    double score(FeedPost post, Set<String> interestTerms, Instant now);
+}
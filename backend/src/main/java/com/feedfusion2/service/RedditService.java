@@ -124,8 +124,8 @@
 //add contains working of youtube bur not reddit
 package com.feedfusion2.service; // Ensure package/imports match your project
 
+import com.feedfusion2.dto.RedditDataDto;
 import com.feedfusion2.model.FeedPost; // Ensure FeedPost is imported
-import com.feedfusion2.repository.FeedPostRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -134,27 +134,21 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
-import java.util.Optional; // Ensure Optional is imported
 
 @Service
 public class RedditService {
 
     private static final Logger log = LoggerFactory.getLogger(RedditService.class);
     private final WebClient redditWebClient;
-    private final FeedPostRepository feedPostRepository;
 
     @Autowired
-    public RedditService(@Qualifier("redditWebClient") WebClient redditWebClient,
-                         FeedPostRepository feedPostRepository) {
+    public RedditService(@Qualifier("redditWebClient") WebClient redditWebClient) {
         this.redditWebClient = Objects.requireNonNull(redditWebClient, "redditWebClient cannot be null");
-        this.feedPostRepository = Objects.requireNonNull(feedPostRepository, "feedPostRepository cannot be null");
     }
 
     public Flux<FeedPost> fetchRedditPosts(String interest) {
@@ -178,44 +172,16 @@ public class RedditService {
                                     return Mono.error(new RuntimeException("Reddit API request failed with status: " + clientResponse.statusCode()));
                                 })
                 )
-                .bodyToMono(Map.class)
+                .bodyToMono(RedditDataDto.class) // Decodes only the fields FeedPost needs, skipping the rest
                 .flatMapMany(this::parseRedditResponse) // This should return Flux<FeedPost>
-                // === Explicit typing within flatMap ===
-                .flatMap(feedPostObject -> { // Use a generic name first
-                    // Explicitly check and cast the object from the upstream Flux
-                    if (!(feedPostObject instanceof FeedPost)) {
-                        log.warn("Object in stream is not a FeedPost: {}", feedPostObject.getClass().getName());
-                        return Mono.empty(); // Skip if not the expected type
+                // Duplicate detection happens in batches in FeedPostBulkWriter, not per post here
+                .filter(feedPost -> {
+                    if (feedPost.getLink() == null) {
+                        log.warn("Skipping post with null link.");
+                        return false;
                     }
-                    FeedPost feedPost = (FeedPost) feedPostObject; // Cast to FeedPost
-
-                    if (feedPost.getLink() == null) { // Now use the typed variable
-                        log.warn("Skipping post with null link during filtering stage.");
-                        return Mono.empty();
-                    }
-
-                    return Mono.fromCallable(() -> feedPostRepository.findByLink(feedPost.getLink())) // Use feedPost.getLink()
-                            .subscribeOn(Schedulers.boundedElastic())
-                            .flatMap(optionalPostObject -> { // Use generic name first
-                                // Explicitly check and cast the object from the Mono result
-                                if (!(optionalPostObject instanceof Optional)) {
-                                    log.error("Repository call did not return Optional: {}", optionalPostObject.getClass().getName());
-                                    // Decide how to handle this - maybe error, maybe treat as empty
-                                    return Mono.empty(); // Or Mono.error(...)
-                                }
-                                @SuppressWarnings("unchecked") // Suppress warning as we checked type
-                                Optional<FeedPost> optionalPost = (Optional<FeedPost>) optionalPostObject; // Cast to Optional<FeedPost>
-
-                                if (optionalPost.isPresent()) { // Now use the typed variable
-                                    log.debug("Post already exists (blocking repo), filtering out: {}", feedPost.getLink());
-                                    return Mono.empty();
-                                } else {
-                                    log.debug("Post is new (blocking repo), keeping: {}", feedPost.getLink());
-                                    return Mono.just(feedPost); // Return the original FeedPost object
-                                }
-                            });
+                    return true;
                 })
-                // === End of Blocking Call Handling ===
                 // === RESTORED Error Handling ===
                 .doOnError(Throwable.class, error -> { // Use generic 'error' parameter name
                     // Explicitly check and cast 'error' before using methods
@@ -271,95 +237,75 @@ public class RedditService {
         return Flux.fromIterable(posts);
     }*/
     // --- COMPLETE Parsing Logic for Reddit API Response ---
-    private Flux<FeedPost> parseRedditResponse(Map<String, Object> response) {
+    Flux<FeedPost> parseRedditResponse(RedditDataDto response) {
         List<FeedPost> posts = new ArrayList<>();
         if (response == null) {
-            log.warn("parseRedditResponse called with null response map.");
+            log.warn("parseRedditResponse called with null response.");
+            return Flux.empty();
+        }
+        RedditDataDto.Listing data = response.getData();
+        if (data == null) {
+            log.warn("Reddit response missing 'data' field.");
+            return Flux.empty();
+        }
+        List<RedditDataDto.Child> children = data.getChildren();
+        if (children == null) {
+            log.warn("Reddit response missing 'data.children' field.");
             return Flux.empty();
         }
-        try {
-            Map<String, Object> data = (Map<String, Object>) response.get("data");
-            if (data == null) {
-                log.warn("Reddit response missing 'data' field.");
-                return Flux.empty();
-            }
-            List<Map<String, Object>> children = (List<Map<String, Object>>) data.get("children");
-            if (children == null) {
-                log.warn("Reddit response missing 'data.children' field.");
-                return Flux.empty();
-            }
 
-            log.debug("Processing {} items from Reddit response.", children.size());
+        log.debug("Processing {} items from Reddit response.", children.size());
 
-            for (Map<String, Object> child : children) {
-                // Check if 'child' map contains 'data' key and it's a Map
-                if (!(child.get("data") instanceof Map)) {
-                    log.warn("Skipping child with missing or invalid 'data' field: {}", child);
-                    continue;
-                }
-                Map<String, Object> postData = (Map<String, Object>) child.get("data");
+        for (RedditDataDto.Child child : children) {
+            RedditDataDto.Post postData = child.getData();
+            if (postData == null) {
+                log.warn("Skipping child with missing 'data' field.");
+                continue;
+            }
 
-                // Basic null checks for essential fields
-                if (postData.get("title") == null || postData.get("permalink") == null || postData.get("author") == null) {
-                    log.warn("Skipping post with missing title, permalink, or author: {}", postData.get("id")); // Log post ID if available
-                    continue;
-                }
+            // Basic null checks for essential fields
+            if (postData.getTitle() == null || postData.getPermalink() == null || postData.getAuthor() == null) {
+                log.warn("Skipping post with missing title, permalink, or author: {}", postData.getId()); // Log post ID if available
+                continue;
+            }
 
-                FeedPost post = new FeedPost(); // Create the post object
+            FeedPost post = new FeedPost(); // Create the post object
 
-                // --- Populate the post object ---
-                post.setPlatform("reddit");
-                post.setTitle(String.valueOf(postData.get("title")));
-                post.setAuthor(String.valueOf(postData.get("author")));
-                // Construct the full link
-                String permalink = String.valueOf(postData.get("permalink"));
-                post.setLink("https://www.reddit.com" + permalink);
+            // --- Populate the post object ---
+            post.setPlatform("reddit");
+            post.setTitle(postData.getTitle());
+            post.setAuthor(postData.getAuthor());
+            // Construct the full link
+            post.setLink("https://www.reddit.com" + postData.getPermalink());
 
-                // Description (selftext can be empty)
-                post.setDescription(String.valueOf(postData.getOrDefault("selftext", "")));
-                if (post.getDescription().length() > 500) { // Truncate
-                    post.setDescription(post.getDescription().substring(0, 497) + "...");
-                }
+            // Description (selftext can be empty)
+            post.setDescription(postData.getSelftext() != null ? postData.getSelftext() : "");
+            if (post.getDescription().length() > 500) { // Truncate
+                post.setDescription(post.getDescription().substring(0, 497) + "...");
+            }
 
-                // Thumbnail (check if it's a valid URL string)
-                Object thumbnailObj = postData.get("thumbnail");
-                if (thumbnailObj instanceof String && ((String) thumbnailObj).startsWith("http")) {
-                    post.setMediaUrl((String) thumbnailObj);
-                } else {
-                    post.setMediaUrl(null); // Set to null if invalid or missing
-                }
+            // Thumbnail (Reddit uses markers like "self" or "default" when there is no image)
+            String thumbnail = postData.getThumbnail();
+            post.setMediaUrl(thumbnail != null && thumbnail.startsWith("http") ? thumbnail : null);
 
-                // Timestamp (created_utc is seconds since epoch)
-                Object createdUtcObj = postData.get("created_utc");
-                if (createdUtcObj instanceof Number) {
-                    try {
-                        // Convert Double/Long seconds to Instant
-                        long epochSeconds = ((Number) createdUtcObj).longValue();
-                        post.setTimestamp(Instant.ofEpochSecond(epochSeconds));
-                    } catch (Exception e) {
-                        log.warn("Could not parse created_utc value '{}' for post {}: {}", createdUtcObj, post.getLink(), e.getMessage());
-                        post.setTimestamp(Instant.now()); // Fallback
-                    }
-                } else {
-                    log.warn("Missing or invalid 'created_utc' field for post: {}", post.getLink());
-                    post.setTimestamp(Instant.now()); // Fallback
-                }
+            // Timestamp (created_utc is seconds since epoch)
+            if (postData.getCreatedUtc() != null) {
+                post.setTimestamp(Instant.ofEpochSecond(postData.getCreatedUtc().longValue()));
+            } else {
+                log.warn("Missing or invalid 'created_utc' field for post: {}", post.getLink());
+                post.setTimestamp(Instant.now()); // Fallback
+            }
 
-                post.setFetchedAt(Instant.now());
-                // --- Finished populating ---
+            post.setFetchedAt(Instant.now());
+            post.setScore(postData.getScore());
+            post.setCommentCount(postData.getNumComments());
+            // --- Finished populating ---
 
-                log.debug("Successfully parsed Reddit post: {}", post.getLink());
-                posts.add(post); // Add the populated post
-            }
-        } catch (ClassCastException | NullPointerException e) {
-            log.error("Error parsing Reddit response structure: {}", e.getMessage(), e);
-            return Flux.error(new RuntimeException("Failed to parse Reddit response structure", e));
-        } catch (Exception e) {
-            log.error("Unexpected error during Reddit response parsing: {}", e.getMessage(), e);
-            return Flux.error(new RuntimeException("Unexpected error parsing Reddit response", e));
+            log.debug("Successfully parsed Reddit post: {}", post.getLink());
+            posts.add(post); // Add the populated post
         }
         log.info("Finished parsing Reddit response. {} posts extracted.", posts.size());
         return Flux.fromIterable(posts);
     }
 
-}
\ No newline at end of file
+}
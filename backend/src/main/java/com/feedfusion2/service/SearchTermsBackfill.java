@@ -0,0 +1,67 @@
+package com.feedfusion2.service;
+
+import com.feedfusion2.model.FeedPost;
+import com.feedfusion2.util.SearchTerms;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Sets FeedPost.searchTerms on posts stored before the field existed, so keyword
+ * queries also find them. New posts get their terms in FeedPostBulkWriter.
+ */
+@Component
+public class SearchTermsBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchTermsBackfill.class);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Value("${feed.ingest.batch-size:100}")
+    private int batchSize;
+
+    @Autowired
+    public SearchTermsBackfill(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        Query query = Query.query(Criteria.where("searchTerms").exists(false));
+        query.fields().include("title").include("description");
+        mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(FeedPost.class))
+                .buffer(batchSize)
+                .concatMap(this::updateBatch)
+                .reduce(0L, Long::sum)
+                .subscribe(
+                        count -> {
+                            if (count > 0) {
+                                log.info("Backfilled search terms on {} stored posts.", count);
+                            }
+                        },
+                        e -> log.error("Failed to backfill search terms: {}", e.getMessage()));
+    }
+
+    private Mono<Long> updateBatch(List<Document> posts) {
+        ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FeedPost.class);
+        for (Document post : posts) {
+            List<String> terms = SearchTerms.of(post.getString("title"), post.getString("description"));
+            bulk.updateOne(Query.query(Criteria.where("_id").is(post.get("_id"))), new Update().set("searchTerms", terms));
+        }
+        return bulk.execute().map(result -> (long) result.getModifiedCount());
+    }
+}
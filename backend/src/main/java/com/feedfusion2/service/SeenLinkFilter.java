@@ -0,0 +1,145 @@
+package com.feedfusion2.service;
+
+import com.feedfusion2.model.FeedPost;
+import com.feedfusion2.util.BloomFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * In-memory Bloom filters of every FeedPost.link known to be stored, and of every
+ * (link, interest) tag known to be stored with it.
+ * Seeded from feed_posts at startup and updated on every insert or tag, so posts that are
+ * already known with all the interests they were fetched for skip the Mongo lookup entirely.
+ * A false positive makes a genuinely new post (or tag) look stored; keep the rate small.
+ */
+@Component
+public class SeenLinkFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SeenLinkFilter.class);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final BloomFilter filter;
+    private final BloomFilter tags; // Keys of tagKey(link, interest)
+    private final long expectedLinks;
+    private volatile boolean capacityWarningLogged = false;
+
+    @Value("${feed.dedup.filter.enabled:true}")
+    private boolean enabled;
+
+    @Autowired
+    public SeenLinkFilter(ReactiveMongoTemplate mongoTemplate, MeterRegistry meterRegistry,
+                          @Value("${feed.dedup.filter.expected-links:1000000}") long expectedLinks,
+                          @Value("${feed.dedup.filter.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.expectedLinks = expectedLinks;
+        this.filter = new BloomFilter(expectedLinks, falsePositiveRate);
+        this.tags = new BloomFilter(expectedLinks, falsePositiveRate); // Most posts are fetched for one interest
+        Gauge.builder("feed.dedup.filter.bytes", filter, BloomFilter::sizeInBytes)
+                .description("Memory held by the seen-link Bloom filter")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("feed.dedup.filter.links", filter, BloomFilter::approximateInsertions)
+                .register(meterRegistry);
+        Gauge.builder("feed.dedup.filter.tags", tags, BloomFilter::approximateInsertions)
+                .register(meterRegistry);
+        Gauge.builder("feed.dedup.filter.fpp", filter, BloomFilter::expectedFalsePositiveRate)
+                .description("Expected false-positive rate at the current fill level")
+                .register(meterRegistry);
+        log.info("Seen-link filter sized for {} links at fpp {} ({} bytes, {} hashes).",
+                expectedLinks, falsePositiveRate, filter.sizeInBytes(), filter.getHashCount());
+    }
+
+    /**
+     * Loads the links of all stored posts in the background. Until seeding finishes,
+     * unknown links simply fall through to the Mongo lookup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (!enabled) {
+            return;
+        }
+        loadStoredLinks()
+                .subscribe(
+                        count -> log.info("Seen-link filter seeded with {} stored links ({} tags).", count, tags.approximateInsertions()),
+                        e -> log.error("Failed to seed seen-link filter: {}", e.getMessage()));
+    }
+
+    /**
+     * @return true if the link is (probably) already stored and can be skipped.
+     */
+    public boolean isKnown(String link) {
+        if (!enabled || !filter.mightContain(link)) {
+            return false;
+        }
+        meterRegistry.counter("feed.dedup.filter.skipped").increment();
+        return true;
+    }
+
+    /**
+     * @return true if the link is (probably) stored and already tagged with every one of the interests.
+     */
+    public boolean isTagged(String link, Collection<String> interests) {
+        if (!enabled) {
+            return false;
+        }
+        for (String interest : interests) {
+            if (!tags.mightContain(tagKey(link, interest))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void markTagged(String link, Collection<String> interests) {
+        if (!enabled) {
+            return;
+        }
+        interests.forEach(interest -> tags.put(tagKey(link, interest)));
+    }
+
+    public void markStored(Collection<String> links) {
+        if (!enabled) {
+            return;
+        }
+        links.forEach(filter::put);
+        if (!capacityWarningLogged && filter.approximateInsertions() > expectedLinks) {
+            capacityWarningLogged = true;
+            log.warn("Seen-link filter holds more than the {} links it was sized for; false-positive rate is now ~{}.",
+                    expectedLinks, filter.expectedFalsePositiveRate());
+        }
+    }
+
+    private Mono<Long> loadStoredLinks() {
+        Query query = new Query();
+        query.fields().include("link").include("interests").exclude("_id");
+        return mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(FeedPost.class))
+                .filter(document -> document.getString("link") != null)
+                .doOnNext(document -> {
+                    String link = document.getString("link");
+                    filter.put(link);
+                    markTagged(link, document.getList("interests", String.class, List.of()));
+                })
+                .count();
+    }
+
+    // Newline cannot occur in a link, so keys of different (link, interest) pairs never collide
+    private static String tagKey(String link, String interest) {
+        return link + '\n' + interest;
+    }
+}
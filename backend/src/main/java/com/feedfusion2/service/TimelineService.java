@@ -0,0 +1,185 @@
+package com.feedfusion2.service;
+
+import com.feedfusion2.dto.FeedCursor;
+import com.feedfusion2.dto.FeedQuery;
+import com.feedfusion2.dto.FeedSort;
+import com.feedfusion2.model.FeedPost;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * Optional fan-out-on-write timelines (feed.timeline.enabled).
+ * Every inserted post is pushed to the timeline of each interest it was fetched for, and from
+ * there to the timeline of every user following that interest. Timelines are bounded, in-memory
+ * lists of post references in feed order; reading a user's feed is one range read on their
+ * timeline plus one findAllById to hydrate it. A client paging through a timeline stays in it
+ * until it runs out, since it is a subset of the regular feed and mixing the two would skip posts.
+ */
+@Component
+public class TimelineService {
+
+    private static final Logger log = LoggerFactory.getLogger(TimelineService.class);
+
+    private final Map<String, Timeline> interestTimelines = new ConcurrentHashMap<>();
+    private final Map<String, UserTimeline> userTimelines = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> followers = new ConcurrentHashMap<>(); // Interest -> usernames
+    private final Counter hits;
+    private final Counter misses;
+
+    @Value("${feed.timeline.enabled:false}")
+    private boolean enabled;
+
+    @Value("${feed.timeline.posts-per-timeline:500}")
+    private int capacity;
+
+    @Value("${feed.timeline.max-users:10000}")
+    private int maxUsers;
+
+    @Autowired
+    public TimelineService(MeterRegistry meterRegistry) {
+        this.hits = meterRegistry.counter("feed.timeline.requests", "result", "hit");
+        this.misses = meterRegistry.counter("feed.timeline.requests", "result", "miss");
+        meterRegistry.gaugeMapSize("feed.timeline.users", Tags.empty(), userTimelines);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Pushes an inserted post (with its id set) to the timelines of its interests and their followers.
+     *
+     * @param interests Normalized interests the post was fetched for.
+     */
+    public void fanOut(FeedPost post, Collection<String> interests) {
+        if (!enabled || post.getId() == null || post.getTimestamp() == null || post.getPlatform() == null) {
+            return;
+        }
+        FeedCursor position = FeedCursor.of(post);
+        for (String interest : interests) {
+            interestTimelines.computeIfAbsent(interest, key -> new Timeline()).add(position, post.getPlatform());
+            for (String username : followers.getOrDefault(interest, Set.of())) {
+                UserTimeline user = userTimelines.get(username);
+                if (user != null) {
+                    user.timeline.add(position, post.getPlatform());
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads one page of the user's timeline, materializing it first if the user is new or
+     * changed interests. A first page is only served from a timeline holding a full page; a
+     * timeline cursor is always continued here, down to the timeline's last (possibly short) page.
+     *
+     * @return Positions (timestamp and id) of the page's posts in feed order, or empty if the query has to use the regular
+     *         feed (mode disabled, keyword, relevance or time-window query, a regular-feed cursor,
+     *         or not enough posts fanned out yet).
+     */
+    public Optional<List<FeedCursor>> readPage(String username, List<String> interests, FeedQuery query) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Set<String> normalized = interests == null ? Set.of() : interests.stream()
+                .map(FeedIngestionService::normalize)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (username == null || normalized.isEmpty() || query.getKeyword() != null || query.getSort() != FeedSort.NEWEST
+                || query.getSince() != null || query.getUntil() != null) {
+            return Optional.empty();
+        }
+        boolean continuing = query.getAfter() != null && query.getAfter().isTimeline();
+        if (query.getAfter() != null && !continuing) {
+            return Optional.empty(); // The client is paging through the regular feed
+        }
+
+        UserTimeline user = follow(username, normalized);
+        List<FeedCursor> page = user == null ? List.of() : user.timeline.read(query);
+        if (!continuing && page.size() < query.getLimit()) {
+            misses.increment(); // Timeline still filling up, the regular feed keeps the page full
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(page);
+    }
+
+    private UserTimeline follow(String username, Set<String> interests) {
+        UserTimeline current = userTimelines.get(username);
+        if (current != null && current.interests.equals(interests)) {
+            return current;
+        }
+        if (current == null && userTimelines.size() >= maxUsers) {
+            log.warn("Timeline user limit ({}) reached, serving '{}' from the regular feed.", maxUsers, username);
+            return null;
+        }
+
+        // Register first so posts fanned out while merging are not lost; the timeline dedupes them
+        UserTimeline updated = new UserTimeline(interests);
+        userTimelines.put(username, updated);
+        if (current != null) {
+            current.interests.forEach(interest -> followers.getOrDefault(interest, Set.of()).remove(username));
+        }
+        for (String interest : interests) {
+            followers.computeIfAbsent(interest, key -> ConcurrentHashMap.newKeySet()).add(username);
+            Timeline source = interestTimelines.get(interest);
+            if (source != null) {
+                source.entries.forEach(updated.timeline::add);
+            }
+        }
+        log.debug("Materialized timeline for '{}' from interests {}.", username, interests);
+        return updated;
+    }
+
+    // Bounded list of post references (position -> platform), newest first; writers are serialized
+    private final class Timeline {
+        private final ConcurrentSkipListMap<FeedCursor, String> entries = new ConcurrentSkipListMap<>(FeedCursor.FEED_ORDER);
+        private int size;
+
+        private synchronized void add(FeedCursor position, String platform) {
+            if (entries.put(position, platform) == null && ++size > capacity) {
+                entries.pollLastEntry();
+                size--;
+            }
+        }
+
+        private List<FeedCursor> read(FeedQuery query) {
+            Map<FeedCursor, String> range = query.getAfter() == null ? entries : entries.tailMap(query.getAfter(), false);
+            List<FeedCursor> positions = new ArrayList<>(query.getLimit());
+            for (Map.Entry<FeedCursor, String> entry : range.entrySet()) {
+                if (positions.size() == query.getLimit()) {
+                    break;
+                }
+                if (query.getPlatform() == null || query.getPlatform().equals(entry.getValue())) {
+                    positions.add(entry.getKey());
+                }
+            }
+            return positions;
+        }
+    }
+
+    private final class UserTimeline {
+        private final Set<String> interests;
+        private final Timeline timeline = new Timeline();
+
+        private UserTimeline(Set<String> interests) {
+            this.interests = interests;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.feedfusion2.service;
+
+import com.feedfusion2.dto.TrendingTopic;
+import com.feedfusion2.model.FeedPost;
+import com.feedfusion2.util.CountMinSketch;
+import com.feedfusion2.util.SearchTerms;
+import com.feedfusion2.util.TopK;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * "Trending now" over the ingestion stream: title terms of newly stored posts are counted in a
+ * sliding window of time buckets, each a count-min sketch, so memory does not grow with the
+ * number of distinct terms. Posts are bucketed by their own timestamp, so a backfill of old
+ * posts (older than the window) does not count as trending now. A bounded set of heavy-hitter candidates (the terms with the highest
+ * window estimates seen so far) is re-ranked periodically into a snapshot that readers slice in O(k).
+ */
+@Component
+public class TrendingTopics {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingTopics.class);
+
+    // Frequent words that say nothing about a topic
+    private static final Set<String> STOP_WORDS = Set.of(
+            "the", "and", "for", "you", "your", "with", "this", "that", "from", "are", "was", "were", "what",
+            "how", "why", "who", "when", "where", "which", "have", "has", "had", "not", "but", "all", "can",
+            "will", "just", "about", "into", "out", "now", "new", "one", "get", "got", "its", "it's", "our",
+            "they", "them", "their", "there", "here", "more", "most", "some", "any", "than", "then", "too",
+            "very", "after", "before", "over", "under", "again", "does", "did", "doing", "been", "being",
+            "video", "videos", "official", "reddit", "youtube", "discussion", "thread", "daily", "weekly");
+    private static final int MIN_TERM_LENGTH = 3;
+
+    private final Bucket[] buckets; // Ring of time buckets covering the window
+    private final long bucketMillis;
+    private final Map<String, Long> candidates = new HashMap<>(); // Heavy-hitter candidates -> window estimate; guarded by itself
+    private final int maxCandidates;
+    private volatile List<TrendingTopic> snapshot = List.of(); // Candidates by count, highest first
+    private Disposable refreshLoop;
+
+    @Value("${feed.trending.enabled:true}")
+    private boolean enabled;
+
+    @Value("${feed.trending.refresh-interval:PT30S}")
+    private Duration refreshInterval;
+
+    @Autowired
+    public TrendingTopics(MeterRegistry meterRegistry,
+                          @Value("${feed.trending.bucket:PT5M}") Duration bucket,
+                          @Value("${feed.trending.buckets:12}") int bucketCount,
+                          @Value("${feed.trending.candidates:200}") int maxCandidates,
+                          @Value("${feed.trending.sketch-width:4096}") int sketchWidth,
+                          @Value("${feed.trending.sketch-depth:4}") int sketchDepth) {
+        this.bucketMillis = bucket.toMillis();
+        this.maxCandidates = maxCandidates;
+        this.buckets = new Bucket[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new Bucket(new CountMinSketch(sketchWidth, sketchDepth));
+        }
+        meterRegistry.gaugeMapSize("feed.trending.candidates", Tags.empty(), candidates);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        refreshLoop = Flux.interval(refreshInterval, refreshInterval)
+                .subscribe(tick -> refresh(), e -> log.error("Trending refresh loop stopped: {}", e.getMessage()));
+        log.info("Trending topics over {} x {} buckets, refreshed every {}.", buckets.length, Duration.ofMillis(bucketMillis), refreshInterval);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refreshLoop != null) {
+            refreshLoop.dispose();
+        }
+    }
+
+    /**
+     * Counts the title terms of a newly stored post in the bucket of its timestamp (now if it has
+     * none or a future one); posts older than the window are not counted. Each post is counted
+     * once, however often the upstream listing returns it again.
+     */
+    public void record(FeedPost post) {
+        if (!enabled || post.getTitle() == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long posted = post.getTimestamp() != null ? Math.min(post.getTimestamp().toEpochMilli(), now) : now;
+        if (posted / bucketMillis <= now / bucketMillis - buckets.length) {
+            return; // Published before the window, e.g. a backfill of an old listing
+        }
+        Bucket bucket = bucket(posted);
+        for (String term : SearchTerms.of(post.getTitle())) {
+            if (term.length() < MIN_TERM_LENGTH || STOP_WORDS.contains(term) || term.chars().allMatch(Character::isDigit)) {
+                continue;
+            }
+            bucket.sketch.add(term, 1);
+            offer(term, windowEstimate(term, now));
+        }
+    }
+
+    /**
+     * @param limit Number of topics wanted.
+     * @return Up to limit topics from the latest snapshot, highest count first.
+     */
+    public List<TrendingTopic> top(int limit) {
+        List<TrendingTopic> current = snapshot;
+        return current.subList(0, Math.max(0, Math.min(limit, current.size())));
+    }
+
+    // Re-estimates every candidate over the current window (old buckets have rotated out) and publishes the ranking
+    void refresh() {
+        long now = System.currentTimeMillis();
+        TopK<TrendingTopic> ranking = new TopK<>(maxCandidates, Comparator.comparingLong(TrendingTopic::getCount)
+                .thenComparing(TrendingTopic::getTerm, Comparator.reverseOrder()));
+        synchronized (candidates) {
+            candidates.replaceAll((term, count) -> windowEstimate(term, now));
+            candidates.values().removeIf(count -> count == 0);
+            candidates.forEach((term, count) -> ranking.offer(new TrendingTopic(term, count)));
+        }
+        snapshot = List.copyOf(ranking.toList());
+    }
+
+    // Keeps the term if there is room or it beats the weakest candidate
+    private void offer(String term, long estimate) {
+        synchronized (candidates) {
+            if (candidates.containsKey(term) || candidates.size() < maxCandidates) {
+                candidates.put(term, estimate);
+                return;
+            }
+            Map.Entry<String, Long> weakest = null;
+            for (Map.Entry<String, Long> candidate : candidates.entrySet()) {
+                if (weakest == null || candidate.getValue() < weakest.getValue()) {
+                    weakest = candidate;
+                }
+            }
+            if (weakest != null && estimate > weakest.getValue()) {
+                candidates.remove(weakest.getKey());
+                candidates.put(term, estimate);
+            }
+        }
+    }
+
+    private long windowEstimate(String term, long now) {
+        long currentSlot = now / bucketMillis;
+        long total = 0;
+        for (Bucket bucket : buckets) {
+            if (bucket.slot > currentSlot - buckets.length) { // Buckets older than the window are ignored until reused
+                total += bucket.sketch.estimate(term);
+            }
+        }
+        return total;
+    }
+
+    // Bucket of the time slot of a time within the window, cleared first if it still holds a slot that left the window
+    private Bucket bucket(long time) {
+        long slot = time / bucketMillis;
+        Bucket bucket = buckets[(int) (slot % buckets.length)];
+        if (bucket.slot < slot) {
+            synchronized (bucket) {
+                if (bucket.slot < slot) {
+                    bucket.sketch.clear();
+                    bucket.slot = slot;
+                }
+            }
+        }
+        return bucket;
+    }
+
+    private static final class Bucket {
+        private final CountMinSketch sketch;
+        private volatile long slot = -1;
+
+        private Bucket(CountMinSketch sketch) {
+            this.sketch = sketch;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.feedfusion2.service;
+
+import com.feedfusion2.model.FeedPost;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight layer in front of the upstream providers.
+ * Concurrent fetches for the same (provider, normalized interest) share one in-flight
+ * Flux; its result stays cached for a short TTL so callers arriving just after it
+ * completes are served without another upstream call. A shared call that outlives
+ * feed.ingest.upstream-timeout fails and is dropped, so nobody joins a hung fetch.
+ * Every caller gets its own copies of the posts: ingestion tags and rewrites them in place.
+ */
+@Component
+public class UpstreamFetchCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamFetchCoalescer.class);
+
+    private final Map<String, Flux<FeedPost>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    @Value("${feed.ingest.coalesce.ttl:PT30S}")
+    private Duration resultTtl;
+
+    @Value("${feed.ingest.upstream-timeout:PT20S}")
+    private Duration upstreamTimeout;
+
+    @Autowired
+    public UpstreamFetchCoalescer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gaugeMapSize("feed.upstream.inflight", Tags.empty(), inFlight);
+    }
+
+    /**
+     * Returns the shared Flux for this provider/interest, subscribing to the upstream
+     * supplier only if no call is in flight or cached.
+     *
+     * @param provider Provider name, e.g. "reddit".
+     * @param interest Interest as requested (normalized for the key).
+     * @param upstream Supplier of the actual upstream fetch.
+     * @return Flux replaying the shared upstream result, as posts of the caller's own.
+     */
+    public Flux<FeedPost> fetch(String provider, String interest, Supplier<Flux<FeedPost>> upstream) {
+        String normalized = FeedIngestionService.normalize(interest);
+        if (normalized == null) {
+            return Flux.empty();
+        }
+        String key = provider + ":" + normalized;
+        meterRegistry.counter("feed.upstream.requests", "provider", provider).increment();
+
+        boolean[] created = {false};
+        Flux<FeedPost> shared = inFlight.computeIfAbsent(key, k -> {
+            created[0] = true;
+            return newSharedFetch(k, provider, upstream);
+        });
+        if (!created[0]) {
+            meterRegistry.counter("feed.upstream.coalesced", "provider", provider).increment();
+            log.debug("Coalesced fetch for '{}' onto the in-flight call.", key);
+        }
+        return shared.map(post -> post.toBuilder().build());
+    }
+
+    /**
+     * @return Total upstream calls saved by coalescing, across providers.
+     */
+    public double getCoalescedCount() {
+        return meterRegistry.find("feed.upstream.coalesced").counters().stream()
+                .mapToDouble(counter -> counter.count())
+                .sum();
+    }
+
+    private Flux<FeedPost> newSharedFetch(String key, String provider, Supplier<Flux<FeedPost>> upstream) {
+        meterRegistry.counter("feed.upstream.calls", "provider", provider).increment();
+        AtomicReference<Flux<FeedPost>> self = new AtomicReference<>();
+        Flux<FeedPost> shared = Flux.defer(upstream)
+                .timeout(upstreamTimeout)
+                .doOnError(e -> log.warn("Upstream fetch for '{}' failed: {}", key, e.toString()))
+                .doFinally(signal -> {
+                    if (signal == SignalType.ON_COMPLETE) {
+                        // Successful results are served to late callers until the TTL runs out
+                        Mono.delay(resultTtl).subscribe(tick -> inFlight.remove(key, self.get()));
+                    } else {
+                        // Failed or timed-out calls are not cached, the next caller retries. cache() never
+                        // cancels upstream, so a call all its callers left still completes and is cached
+                        inFlight.remove(key, self.get());
+                    }
+                })
+                .cache();
+        self.set(shared);
+        return shared;
+    }
+}
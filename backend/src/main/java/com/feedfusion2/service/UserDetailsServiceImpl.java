@@ -8,27 +8,32 @@ import org.springframework.stereotype.Service;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.transaction.annotation.Transactional; // Optional but good
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
 // --- V V V MAKE SURE THIS ANNOTATION IS PRESENT V V V ---
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl {
 
     @Autowired
     UserRepository userRepository;
 
-    @Override
-    @Transactional // Good practice for database operations
-    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+    /**
+     * Loads the user through the reactive repository; no blocking call, no scheduler hop.
+     * @param username Username to look up.
+     * @return Mono with the UserDetails, or a UsernameNotFoundException error.
+     */
+    public Mono<UserDetails> findByUsername(String username) {
         // Find user by username (or email, if you allow login with email)
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
+        return userRepository.findByUsername(username)
+                .switchIfEmpty(Mono.error(() -> new UsernameNotFoundException("User Not Found with username: " + username)))
+                .map(this::toUserDetails);
+    }
 
+    private UserDetails toUserDetails(User user) {
         // Convert user roles (Set<String>) to Spring Security authorities (List<GrantedAuthority>)
         List<GrantedAuthority> authorities = user.getRoles().stream()
                 .map(role -> new SimpleGrantedAuthority(role)) // Assuming roles are stored like "ROLE_USER", "ROLE_ADMIN"
@@ -217,8 +217,9 @@
 //}
 package com.feedfusion2.service; // Ensure package/imports match your project
 
+import com.feedfusion2.dto.YoutubeDataDto;
+import com.feedfusion2.dto.YoutubeStatisticsDto;
 import com.feedfusion2.model.FeedPost;
-import com.feedfusion2.repository.FeedPostRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -228,14 +229,14 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers; // Import Schedulers
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional; // Import Optional
+import java.util.stream.Collectors;
 
 
 @Service
@@ -243,16 +244,13 @@ public class YouTubeService {
 
     private static final Logger log = LoggerFactory.getLogger(YouTubeService.class);
     private final WebClient youtubeWebClient;
-    private final FeedPostRepository feedPostRepository; // Assuming blocking repo
 
     @Value("${youtube.api.key}")
     private String apiKey;
 
     @Autowired
-    public YouTubeService(@Qualifier("youtubeWebClient") WebClient youtubeWebClient,
-                          FeedPostRepository feedPostRepository) { // Assuming blocking repo injection
+    public YouTubeService(@Qualifier("youtubeWebClient") WebClient youtubeWebClient) {
         this.youtubeWebClient = Objects.requireNonNull(youtubeWebClient);
-        this.feedPostRepository = Objects.requireNonNull(feedPostRepository);
     }
 
     // fetchYouTubeVideos method remains the same as your last working version
@@ -285,44 +283,18 @@ public class YouTubeService {
                                     return Mono.error(new RuntimeException("YouTube API request failed with status: " + clientResponse.statusCode()));
                                 })
                 )
-                .bodyToMono(Map.class) // Or specific YouTube DTO
+                .bodyToMono(YoutubeDataDto.class) // Decodes only the fields FeedPost needs, skipping the rest
                 .flatMapMany(this::parseYouTubeResponse) // This should return Flux<FeedPost>
-                // === Explicit typing within flatMap ===
-                .flatMap(feedPostObject -> { // Use a generic name first
-                    // Explicitly check and cast the object from the upstream Flux
-                    if (!(feedPostObject instanceof FeedPost)) {
-                        log.warn("YouTube: Object in stream is not a FeedPost: {}", feedPostObject.getClass().getName());
-                        return Mono.empty();
-                    }
-                    FeedPost feedPost = (FeedPost) feedPostObject; // Cast to FeedPost
-
-                    // Check link *before* DB call (it should be set by parseYouTubeResponse)
+                .collectList()
+                .flatMapMany(this::withStatistics) // Engagement counters for ranking, one extra call per search
+                // Duplicate detection happens in batches in FeedPostBulkWriter, not per post here
+                .filter(feedPost -> {
                     if (feedPost.getLink() == null) {
-                        log.warn("YouTube: Skipping post with null link before DB check.");
-                        return Mono.empty();
+                        log.warn("YouTube: Skipping post with null link.");
+                        return false;
                     }
-
-                    // Check DB for duplicates
-                    return Mono.fromCallable(() -> feedPostRepository.findByLink(feedPost.getLink())) // Use feedPost.getLink()
-                            .subscribeOn(Schedulers.boundedElastic())
-                            .flatMap(optionalPostObject -> { // Use generic name first
-                                // Explicitly check and cast the object from the Mono result
-                                if (!(optionalPostObject instanceof Optional)) {
-                                    log.error("YouTube: Repository call did not return Optional: {}", optionalPostObject.getClass().getName());
-                                    return Mono.empty();
-                                }
-                                @SuppressWarnings("unchecked")
-                                Optional<FeedPost> optionalPost = (Optional<FeedPost>) optionalPostObject; // Cast to Optional<FeedPost>
-
-                                if (optionalPost.isPresent()) { // Now use the typed variable
-                                    log.debug("YouTube: Post already exists (blocking repo), filtering out: {}", feedPost.getLink());
-                                    return Mono.empty();
-                                } else {
-                                    log.debug("YouTube: Post is new (blocking repo), keeping: {}", feedPost.getLink());
-                                    return Mono.just(feedPost); // Return the original FeedPost object
-                                }
-                            });
-                }) // <<< End of flatMap for repo check
+                    return true;
+                })
                 // === RESTORED Error Handling ===
                 .doOnError(Throwable.class, error -> { // Use generic 'error' parameter name
                     // Explicitly check and cast 'error' before using methods
@@ -340,92 +312,120 @@ public class YouTubeService {
     }
 
 
+    // Adds view, like and comment counts from one /videos call for the whole search page;
+    // if that call fails the posts are kept without them
+    Flux<FeedPost> withStatistics(List<FeedPost> posts) {
+        if (posts.isEmpty()) {
+            return Flux.empty();
+        }
+        String ids = posts.stream().map(FeedPost::getVideoId).collect(Collectors.joining(","));
+        String statisticsUrl = String.format("/videos?part=statistics&id=%s&key=%s", ids, apiKey);
+        return youtubeWebClient.get()
+                .uri(statisticsUrl)
+                .retrieve()
+                .bodyToMono(YoutubeStatisticsDto.class)
+                .map(response -> applyStatistics(posts, response))
+                .doOnError(e -> log.warn("Could not fetch YouTube statistics for {} videos: {}", posts.size(), e.getMessage()))
+                .onErrorReturn(posts)
+                .defaultIfEmpty(posts)
+                .flatMapIterable(list -> list);
+    }
+
+    List<FeedPost> applyStatistics(List<FeedPost> posts, YoutubeStatisticsDto response) {
+        if (response == null || response.getItems() == null) {
+            return posts;
+        }
+        Map<String, YoutubeStatisticsDto.Statistics> byVideoId = new HashMap<>();
+        for (YoutubeStatisticsDto.Item item : response.getItems()) {
+            if (item.getId() != null && item.getStatistics() != null) {
+                byVideoId.put(item.getId(), item.getStatistics());
+            }
+        }
+        for (FeedPost post : posts) {
+            YoutubeStatisticsDto.Statistics statistics = byVideoId.get(post.getVideoId());
+            if (statistics != null) {
+                post.setViewCount(statistics.getViewCount());
+                post.setScore(statistics.getLikeCount());
+                post.setCommentCount(statistics.getCommentCount());
+            }
+        }
+        return posts;
+    }
+
     // --- COMPLETE Parsing Logic for YouTube API Response (with videoId added) ---
-    private Flux<FeedPost> parseYouTubeResponse(Map<String, Object> response) {
+    Flux<FeedPost> parseYouTubeResponse(YoutubeDataDto response) {
         List<FeedPost> posts = new ArrayList<>();
         if (response == null) {
-            log.warn("parseYouTubeResponse called with null response map.");
+            log.warn("parseYouTubeResponse called with null response.");
             return Flux.empty();
         }
 
-        try {
-            List<Map<String, Object>> items = (List<Map<String, Object>>) response.get("items");
-            if (items == null) {
-                log.warn("YouTube response missing 'items' array.");
-                return Flux.empty();
-            }
+        List<YoutubeDataDto.Item> items = response.getItems();
+        if (items == null) {
+            log.warn("YouTube response missing 'items' array.");
+            return Flux.empty();
+        }
 
-            log.debug("Processing {} items from YouTube response.", items.size());
+        log.debug("Processing {} items from YouTube response.", items.size());
 
-            for (Map<String, Object> item : items) {
-                Map<String, Object> snippet = (Map<String, Object>) item.get("snippet");
-                Map<String, Object> idMap = (Map<String, Object>) item.get("id"); // Renamed to avoid conflict with FeedPost id field
+        for (YoutubeDataDto.Item item : items) {
+            YoutubeDataDto.Snippet snippet = item.getSnippet();
+            YoutubeDataDto.ItemId itemId = item.getId(); // Named to avoid conflict with FeedPost id field
 
-                // --- Essential Checks ---
-                if (idMap == null || !"youtube#video".equals(idMap.get("kind")) || idMap.get("videoId") == null || snippet == null) {
-                    log.warn("Skipping non-video item or item with missing ID/snippet: {}", item);
-                    continue;
-                }
+            // --- Essential Checks ---
+            if (itemId == null || !"youtube#video".equals(itemId.getKind()) || itemId.getVideoId() == null || snippet == null) {
+                log.warn("Skipping non-video item or item with missing ID/snippet: {}", item);
+                continue;
+            }
 
-                String videoId = String.valueOf(idMap.get("videoId"));
-                if (videoId.isEmpty()) { // Extra check
-                    log.warn("Skipping item with empty videoId: {}", item);
-                    continue;
-                }
-                // Construct the link (still useful for direct linking if needed)
-                String videoLink = "https://www.youtube.com/watch?v=dQw4w9WgXcQ" + videoId;
+            String videoId = itemId.getVideoId();
+            if (videoId.isEmpty()) { // Extra check
+                log.warn("Skipping item with empty videoId: {}", item);
+                continue;
+            }
+            // Construct the link (still useful for direct linking if needed)
+            String videoLink = "https://www.youtube.com/watch?v=dQw4w9WgXcQ" + videoId;
 
-                FeedPost post = new FeedPost();
-                post.setPlatform("youtube");
-                post.setLink(videoLink);
-                // *** SET videoId ***
-                post.setVideoId(videoId); // <<< This line was added/confirmed
+            FeedPost post = new FeedPost();
+            post.setPlatform("youtube");
+            post.setLink(videoLink);
+            post.setVideoId(videoId);
 
-                // --- Populate other fields from snippet ---
-                post.setTitle(String.valueOf(snippet.getOrDefault("title", "Untitled")));
-                post.setDescription(String.valueOf(snippet.getOrDefault("description", "")));
-                if (post.getDescription().length() > 500) {
-                    post.setDescription(post.getDescription().substring(0, 497) + "...");
-                }
-                post.setAuthor(String.valueOf(snippet.getOrDefault("channelTitle", "Unknown Channel")));
+            // --- Populate other fields from snippet ---
+            post.setTitle(snippet.getTitle() != null ? snippet.getTitle() : "Untitled");
+            post.setDescription(snippet.getDescription() != null ? snippet.getDescription() : "");
+            if (post.getDescription().length() > 500) {
+                post.setDescription(post.getDescription().substring(0, 497) + "...");
+            }
+            post.setAuthor(snippet.getChannelTitle() != null ? snippet.getChannelTitle() : "Unknown Channel");
 
-                // Thumbnails
-                Map<String, Object> thumbnails = (Map<String, Object>) snippet.get("thumbnails");
-                if (thumbnails != null) {
-                    Map<String, Object> thumb = (Map<String, Object>) thumbnails.get("medium");
-                    if (thumb == null) {
-                        thumb = (Map<String, Object>) thumbnails.get("default");
-                    }
-                    if (thumb != null && thumb.get("url") instanceof String) {
-                        post.setMediaUrl((String) thumb.get("url"));
-                    }
+            // Thumbnails
+            YoutubeDataDto.Thumbnails thumbnails = snippet.getThumbnails();
+            if (thumbnails != null) {
+                YoutubeDataDto.Thumbnail thumb = thumbnails.getMedium() != null ? thumbnails.getMedium() : thumbnails.getDefaultThumbnail();
+                if (thumb != null) {
+                    post.setMediaUrl(thumb.getUrl());
                 }
+            }
 
-                // Timestamp
-                Object publishedAtObj = snippet.get("publishedAt");
-                if (publishedAtObj instanceof String) {
-                    try {
-                        post.setTimestamp(Instant.parse((String) publishedAtObj));
-                    } catch (Exception pe) {
-                        log.warn("Could not parse YouTube timestamp '{}' for videoId {}: {}", publishedAtObj, videoId, pe.getMessage());
-                        post.setTimestamp(Instant.now()); // Fallback
-                    }
-                } else {
-                    log.warn("Missing or invalid 'publishedAt' field for videoId {}", videoId);
+            // Timestamp
+            String publishedAt = snippet.getPublishedAt();
+            if (publishedAt != null) {
+                try {
+                    post.setTimestamp(Instant.parse(publishedAt));
+                } catch (Exception pe) {
+                    log.warn("Could not parse YouTube timestamp '{}' for videoId {}: {}", publishedAt, videoId, pe.getMessage());
                     post.setTimestamp(Instant.now()); // Fallback
                 }
+            } else {
+                log.warn("Missing or invalid 'publishedAt' field for videoId {}", videoId);
+                post.setTimestamp(Instant.now()); // Fallback
+            }
 
-                post.setFetchedAt(Instant.now());
+            post.setFetchedAt(Instant.now());
 
-                log.debug("Successfully parsed YouTube video: {}", post.getLink());
-                posts.add(post); // Add the fully populated post
-            }
-        } catch (ClassCastException | NullPointerException e) {
-            log.error("Error parsing YouTube response structure: {}", e.getMessage(), e);
-            return Flux.error(new RuntimeException("Failed to parse YouTube response structure", e));
-        } catch (Exception e) {
-            log.error("Unexpected error parsing YouTube response: {}", e.getMessage(), e);
-            return Flux.error(new RuntimeException("Unexpected error parsing YouTube response", e));
+            log.debug("Successfully parsed YouTube video: {}", post.getLink());
+            posts.add(post); // Add the fully populated post
         }
 
         log.info("Finished parsing YouTube response. {} posts extracted.", posts.size());
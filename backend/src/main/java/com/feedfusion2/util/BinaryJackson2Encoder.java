@@ -0,0 +1,41 @@
+package com.feedfusion2.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.codec.json.AbstractJackson2Encoder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Jackson encoder for binary formats (CBOR, Smile) that also accepts Flux bodies.
+ * Spring's Jackson2CborEncoder rejects a Flux and Jackson2SmileEncoder frames one with JSON
+ * brackets; here a Flux (e.g. the bookmarks response) is collected and written as one array.
+ */
+public class BinaryJackson2Encoder extends AbstractJackson2Encoder {
+
+    public BinaryJackson2Encoder(ObjectMapper mapper, MimeType mimeType) {
+        super(mapper, mimeType); // Without an explicit type the Jackson codecs claim JSON
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                   ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+        if (inputStream instanceof Mono) {
+            return Mono.from(inputStream)
+                    .map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints))
+                    .flux();
+        }
+        ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+        return Flux.from(inputStream)
+                .collectList()
+                .map(values -> encodeValue(values, bufferFactory, listType, mimeType, hints))
+                .flux();
+    }
+}
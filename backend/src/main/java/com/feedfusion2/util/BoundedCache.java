@@ -0,0 +1,65 @@
+package com.feedfusion2.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Concurrent map with a rough size bound and no access tracking: an insert that finds it full
+ * first drops a tenth of the entries in iteration order. Meant for caches whose entries are
+ * cheap to rebuild, where LRU bookkeeping on every read would cost more than the extra misses.
+ * The bound may be overshot briefly by concurrent inserts.
+ */
+public class BoundedCache<K, V> {
+
+    private final Map<K, V> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    public BoundedCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    public V get(K key) {
+        return entries.get(key);
+    }
+
+    public void put(K key, V value) {
+        makeRoom(key);
+        entries.put(key, value);
+    }
+
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mapping) {
+        makeRoom(key);
+        return entries.computeIfAbsent(key, mapping);
+    }
+
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+        makeRoom(key);
+        return entries.compute(key, remapping);
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void makeRoom(K key) {
+        if (entries.size() < maxEntries || entries.containsKey(key)) {
+            return;
+        }
+        int toRemove = Math.max(1, maxEntries / 10);
+        Iterator<K> keys = entries.keySet().iterator();
+        while (toRemove-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
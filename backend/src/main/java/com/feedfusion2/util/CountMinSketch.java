@@ -0,0 +1,57 @@
+package com.feedfusion2.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, thread-safe count-min sketch for string counts.
+ * Estimates never undercount; they overcount by at most about total / width with high
+ * probability, so the width bounds the error and the depth the chance of exceeding it.
+ */
+public class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final AtomicLongArray counters; // depth rows of width counters
+
+    public CountMinSketch(int width, int depth) {
+        if (width <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("width and depth must be positive");
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counters = new AtomicLongArray(width * depth);
+    }
+
+    public void add(String value, long count) {
+        long hash = BloomFilter.hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int row = 0; row < depth; row++) {
+            counters.addAndGet(row * width + column(h1 + row * h2), count);
+        }
+    }
+
+    /**
+     * @return Upper bound of the value's count: the smallest of its counters.
+     */
+    public long estimate(String value) {
+        long hash = BloomFilter.hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters.get(row * width + column(h1 + row * h2)));
+        }
+        return min;
+    }
+
+    public void clear() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+    }
+
+    private int column(int combinedHash) {
+        return (combinedHash & Integer.MAX_VALUE) % width; // Kirsch-Mitzenmacher double hashing, as in BloomFilter
+    }
+}
@@ -0,0 +1,27 @@
+package com.feedfusion2.util;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Builds strong ETags from the values a response depends on (versions, filters, user).
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * @return Quoted ETag, identical for identical parts.
+     */
+    public static String of(Object... parts) {
+        String key = Arrays.stream(parts)
+                .map(part -> Objects.toString(part, ""))
+                .collect(Collectors.joining("\u0000")); // Separator that cannot appear in request parameters
+        return "\"" + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
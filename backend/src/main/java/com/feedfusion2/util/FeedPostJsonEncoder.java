@@ -0,0 +1,108 @@
+package com.feedfusion2.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.feedfusion2.model.FeedPost;
+import com.feedfusion2.service.FeedPostJsonCache;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.codec.Encoder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON encoder for FeedPost, List&lt;FeedPost&gt; and Flux&lt;FeedPost&gt; bodies that writes each post's
+ * cached bytes (FeedPostJsonCache) as its own buffer, wrapped without copying, instead of running
+ * Jackson per post and request. Other types are left to the default Jackson encoder.
+ */
+public class FeedPostJsonEncoder implements Encoder<Object> {
+
+    private static final byte[] ARRAY_START = {'['};
+    private static final byte[] ARRAY_END = {']'};
+    private static final byte[] SEPARATOR = {','};
+    private static final byte[] NEWLINE = {'\n'};
+    private static final List<MimeType> MIME_TYPES = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON);
+
+    private final FeedPostJsonCache cache;
+
+    public FeedPostJsonEncoder(FeedPostJsonCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public boolean canEncode(ResolvableType elementType, MimeType mimeType) {
+        if (mimeType != null && MIME_TYPES.stream().noneMatch(type -> type.isCompatibleWith(mimeType))) {
+            return false;
+        }
+        if (FeedPost.class.isAssignableFrom(elementType.toClass())) {
+            return true;
+        }
+        if (!Collection.class.isAssignableFrom(elementType.toClass())) {
+            return false;
+        }
+        Class<?> itemType = elementType.asCollection().resolveGeneric(0);
+        return itemType != null && FeedPost.class.isAssignableFrom(itemType);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                   ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+        if (inputStream instanceof Mono) {
+            return Mono.from(inputStream).map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+        }
+        if (mimeType != null && MediaType.APPLICATION_NDJSON.isCompatibleWith(mimeType)) {
+            // One post per line, flushed as it comes
+            return Flux.from(inputStream).map(post -> bufferFactory.join(List.of(
+                    bufferFactory.wrap(json(post)), bufferFactory.wrap(NEWLINE))));
+        }
+        // Flux rendered as one JSON array
+        return Flux.from(inputStream)
+                .index()
+                .map(indexed -> indexed.getT1() == 0
+                        ? bufferFactory.join(List.of(bufferFactory.wrap(ARRAY_START), bufferFactory.wrap(json(indexed.getT2()))))
+                        : bufferFactory.join(List.of(bufferFactory.wrap(SEPARATOR), bufferFactory.wrap(json(indexed.getT2())))))
+                .switchIfEmpty(Mono.fromSupplier(() -> bufferFactory.wrap(ARRAY_START)))
+                .concatWith(Mono.fromSupplier(() -> bufferFactory.wrap(ARRAY_END)));
+    }
+
+    @Override
+    public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+                                  MimeType mimeType, Map<String, Object> hints) {
+        if (!(value instanceof Collection<?> posts)) {
+            return bufferFactory.wrap(json(value));
+        }
+        List<DataBuffer> buffers = new ArrayList<>(posts.size() * 2 + 1);
+        buffers.add(bufferFactory.wrap(ARRAY_START));
+        for (Object post : posts) {
+            if (buffers.size() > 1) {
+                buffers.add(bufferFactory.wrap(SEPARATOR));
+            }
+            buffers.add(bufferFactory.wrap(json(post)));
+        }
+        buffers.add(bufferFactory.wrap(ARRAY_END));
+        return bufferFactory.join(buffers); // Composite of the cached slices, nothing is copied
+    }
+
+    @Override
+    public List<MimeType> getEncodableMimeTypes() {
+        return MIME_TYPES;
+    }
+
+    private byte[] json(Object post) {
+        try {
+            return cache.get((FeedPost) post);
+        } catch (JsonProcessingException e) {
+            throw new EncodingException("Could not encode FeedPost: " + e.getOriginalMessage(), e);
+        }
+    }
+}
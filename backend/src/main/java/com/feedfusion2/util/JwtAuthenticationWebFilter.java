@@ -1,5 +1,6 @@
 package com.feedfusion2.util; // Ensure this package name is correct
 
+import io.jsonwebtoken.Claims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -49,13 +50,18 @@ public class JwtAuthenticationWebFilter implements WebFilter { // Implement reac
         logger.debug("[{}] --- Reactive JwtAuthenticationWebFilter START for request: {}", requestId, request.getURI());
         logger.trace("[{}] Parsed JWT: {}", requestId, (jwt != null ? "[PRESENT]" : "[NULL]"));
 
-        if (jwt != null && jwtUtil.validateJwtToken(jwt)) {
+        Claims claims = jwtUtil.verify(jwt); // One verify pass (or a cache hit) yields validity and claims together
+        if (claims != null) {
             logger.debug("[{}] JWT is valid.", requestId);
-            String username = jwtUtil.getUsernameFromJwtToken(jwt);
+            String username = claims.getSubject();
             logger.debug("[{}] Username from JWT: {}", requestId, username);
 
-            // Load UserDetails reactively
-            return reactiveUserDetailsService.findByUsername(username)
+            // Tokens carrying uid/roles describe the user completely; only older tokens need the user lookup
+            JwtUserPrincipal principal = jwtUtil.getPrincipal(claims);
+            Mono<UserDetails> userDetailsMono = principal != null
+                    ? Mono.just(principal)
+                    : reactiveUserDetailsService.findByUsername(username); // Load UserDetails reactively
+            return userDetailsMono
                     .flatMap(userDetails -> { // If userDetails is found
                         logger.debug("[{}] UserDetails loaded for username: {}", requestId, userDetails.getUsername());
                         // Create the Authentication object
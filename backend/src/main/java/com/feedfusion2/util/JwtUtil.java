@@ -1,29 +1,55 @@
 package com.feedfusion2.util;
 
+import com.feedfusion2.model.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.time.Clock;
 import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtUtil {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLES_CLAIM = "roles";
 
-    @Value("${jwt.secret}") // Load secret from application.properties
-    private String jwtSecret;
+    private final SecretKey key; // Decoded once from jwt.secret
+    private final JwtParser parser; // Immutable and thread-safe, shared by all requests
+    private final int jwtExpirationMs;
+    private final Clock clock; // Issue and expiry times
+    // Recently verified tokens -> their claims, so repeat requests with the same token skip the HS512 pass; null if disabled
+    private final BoundedCache<String, Claims> verified;
 
-    @Value("${jwt.expiration.ms}") // Load expiration time from application.properties
-    private int jwtExpirationMs;
+    @Autowired
+    public JwtUtil(@Value("${jwt.secret}") String jwtSecret, // Load secret from application.properties
+                   @Value("${jwt.expiration.ms}") int jwtExpirationMs, // Load expiration time from application.properties
+                   @Value("${jwt.verify-cache.max-entries:10000}") int verifiedCacheSize) {
+        this(jwtSecret, jwtExpirationMs, verifiedCacheSize, Clock.systemUTC());
+    }
+
+    // Tests pass a clock they can move
+    JwtUtil(String jwtSecret, int jwtExpirationMs, int verifiedCacheSize, Clock clock) {
+        this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.parser = Jwts.parserBuilder().setSigningKey(key).setClock(() -> Date.from(clock.instant())).build();
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.clock = clock;
+        this.verified = verifiedCacheSize > 0 ? new BoundedCache<>(verifiedCacheSize) : null;
+    }
 
     // Generate a JWT token from Authentication object
     public String generateJwtToken(Authentication authentication) {
@@ -33,36 +59,83 @@ public class JwtUtil {
         return generateTokenFromUsername(userPrincipal.getUsername());
     }
 
+    // Generate a JWT token carrying the user's ID and roles, so requests authenticate without a user lookup
+    public String generateTokenFromUser(User user) {
+        return Jwts.builder()
+                .setSubject(user.getUsername())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLES_CLAIM, user.getRoles() != null ? List.copyOf(user.getRoles()) : List.of())
+                .setIssuedAt(new Date(clock.millis()))
+                .setExpiration(new Date(clock.millis() + jwtExpirationMs))
+                .signWith(key, SignatureAlgorithm.HS512)
+                .compact();
+    }
+
     // Generate a JWT token directly from username (useful if needed elsewhere)
     public String generateTokenFromUsername(String username) {
         return Jwts.builder()
                 .setSubject(username)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key(), SignatureAlgorithm.HS512) // Use HS512 algorithm
+                .setIssuedAt(new Date(clock.millis()))
+                .setExpiration(new Date(clock.millis() + jwtExpirationMs))
+                .signWith(key, SignatureAlgorithm.HS512) // Use HS512 algorithm
                 .compact();
     }
 
-    // Get the SecretKey used for signing
-    private SecretKey key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    /**
+     * Verifies a token's signature and expiry in a single parse and returns its claims.
+     * Tokens verified before are answered from a bounded cache until they expire.
+     *
+     * @return The token's claims, or null if the token is invalid or expired.
+     */
+    public Claims verify(String token) {
+        if (token == null) {
+            return null;
+        }
+        Claims cached = verified != null ? verified.get(token) : null;
+        if (cached != null) {
+            if (cached.getExpiration() == null || cached.getExpiration().getTime() > clock.millis()) {
+                return cached;
+            }
+            verified.remove(token); // Expired since it was verified
+            logger.error("JWT token is expired: expired at {}", cached.getExpiration());
+            return null;
+        }
+        Claims claims = parse(token);
+        if (claims != null && verified != null) {
+            verified.put(token, claims);
+        }
+        return claims;
+    }
+
+    /**
+     * @return The user described by verified claims, or null if the token predates the uid/roles claims.
+     */
+    public JwtUserPrincipal getPrincipal(Claims claims) {
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        Object roles = claims.get(ROLES_CLAIM);
+        if (userId == null || claims.getSubject() == null || !(roles instanceof List)) {
+            return null;
+        }
+        List<GrantedAuthority> authorities = ((List<?>) roles).stream()
+                .map(role -> new SimpleGrantedAuthority(String.valueOf(role)))
+                .collect(Collectors.toList());
+        return new JwtUserPrincipal(userId, claims.getSubject(), authorities);
     }
 
     // Extract username from a JWT token
     public String getUsernameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        Claims claims = verify(token);
+        return claims != null ? claims.getSubject() : null;
     }
 
     // Validate a JWT token
     public boolean validateJwtToken(String authToken) {
+        return verify(authToken) != null;
+    }
+
+    private Claims parse(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(authToken);
-            return true;
+            return parser.parseClaimsJws(token).getBody();
         } catch (SignatureException e) {
             logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -75,6 +148,6 @@ public class JwtUtil {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
 
-        return false;
+        return null;
     }
 }
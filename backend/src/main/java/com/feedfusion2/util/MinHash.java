@@ -0,0 +1,82 @@
+package com.feedfusion2.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * MinHash signature of a post's normalized terms (SearchTerms), for near-duplicate detection:
+ * the share of equal positions in two signatures estimates the Jaccard similarity of the term sets.
+ * Features are the title terms; the description only counts for titles with too few terms to compare,
+ * since the same story usually comes with a different description on each platform.
+ */
+public final class MinHash {
+
+    public static final int SIZE = 32; // Signature length; the estimate's error is about 1/sqrt(SIZE)
+
+    private static final int MIN_TITLE_TERMS = 4;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private MinHash() {
+    }
+
+    /**
+     * @return Signature of SIZE values, or null if the texts have no usable term.
+     */
+    public static List<Integer> of(String title, String description) {
+        List<String> terms = SearchTerms.of(title);
+        if (terms.size() < MIN_TITLE_TERMS) {
+            terms = SearchTerms.of(title, description);
+        }
+        if (terms.isEmpty()) {
+            return null;
+        }
+        int[] minimums = new int[SIZE];
+        Arrays.fill(minimums, Integer.MAX_VALUE);
+        for (String term : terms) {
+            long termHash = BloomFilter.hash(term);
+            for (int i = 0; i < SIZE; i++) {
+                int value = (int) mix(termHash + (i + 1) * GOLDEN_GAMMA); // i-th hash function
+                if (value < minimums[i]) {
+                    minimums[i] = value;
+                }
+            }
+        }
+        List<Integer> signature = new ArrayList<>(SIZE);
+        for (int minimum : minimums) {
+            signature.add(minimum);
+        }
+        return signature;
+    }
+
+    /**
+     * @return Estimated Jaccard similarity of the term sets behind two signatures, from 0 to 1.
+     */
+    public static double similarity(List<Integer> a, List<Integer> b) {
+        int equal = 0;
+        for (int i = 0; i < SIZE; i++) {
+            if (a.get(i).intValue() == b.get(i).intValue()) {
+                equal++;
+            }
+        }
+        return (double) equal / SIZE;
+    }
+
+    /**
+     * @return Stable 64-bit hex ID derived from a signature.
+     */
+    public static String id(List<Integer> signature) {
+        long hash = 0;
+        for (int value : signature) {
+            hash = mix(hash * 31 + value);
+        }
+        return String.format("%016x", hash);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
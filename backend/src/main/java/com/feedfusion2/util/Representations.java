@@ -0,0 +1,47 @@
+package com.feedfusion2.util;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Media types feed and bookmark responses are written in (CodecConfig), and the choice among them
+ * for a request. Controllers make the choice themselves and send it as the Content-Type, so the
+ * strong ETag of a response can name the one representation it validates.
+ */
+public final class Representations {
+
+    public static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    // In order of preference when the Accept header allows several
+    private static final List<MediaType> SUPPORTED = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, SMILE);
+
+    private Representations() {
+    }
+
+    /**
+     * @return The representation to write for the request's Accept header (JSON without one),
+     *         or null if none is acceptable and the response will be 406 anyway.
+     */
+    public static MediaType negotiate(HttpHeaders requestHeaders) {
+        List<MediaType> accepted = new ArrayList<>(requestHeaders.getAccept());
+        if (accepted.isEmpty()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType accept : accepted) {
+            if (accept.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType supported : SUPPORTED) {
+                if (accept.isCompatibleWith(supported)) {
+                    return supported;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,110 @@
+package com.feedfusion2.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Tokenizer shared by ingestion (FeedPost.searchTerms) and keyword queries, so both
+ * sides agree on what a term is: lower-cased runs of letters and digits.
+ */
+public final class SearchTerms {
+
+    public static final int MAX_TERMS_PER_POST = 256; // Bounds the multikey index entries per post
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_TERM_LENGTH = 2;
+
+    private SearchTerms() {
+    }
+
+    /**
+     * @return Distinct terms of the given texts, in order of first appearance.
+     */
+    public static List<String> of(String... texts) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            for (String token : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+                if (token.length() >= MIN_TERM_LENGTH) {
+                    terms.add(token);
+                    if (terms.size() == MAX_TERMS_PER_POST) {
+                        return new ArrayList<>(terms);
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    /**
+     * Parses a keyword query into terms; a word ending in '*' makes its last term a prefix.
+     * A word the tokenizer would lose part of (a run shorter than two characters, as in "c++"
+     * or "3.2") is kept whole as a literal instead, to be matched as text.
+     *
+     * @return Parsed query; empty if the keyword has no usable terms.
+     */
+    public static Parsed parse(String keyword) {
+        List<String> exact = new ArrayList<>();
+        List<String> prefixes = new ArrayList<>();
+        List<String> literals = new ArrayList<>();
+        for (String word : keyword.trim().split("\\s+")) {
+            boolean prefix = word.endsWith("*");
+            String text = prefix ? word.substring(0, word.length() - 1) : word;
+            if (losesRuns(text)) {
+                literals.add(text);
+                continue;
+            }
+            List<String> terms = of(text);
+            for (int i = 0; i < terms.size(); i++) {
+                (prefix && i == terms.size() - 1 ? prefixes : exact).add(terms.get(i));
+            }
+        }
+        return new Parsed(exact, prefixes, literals);
+    }
+
+    private static boolean losesRuns(String word) {
+        for (String token : NON_WORD.split(word)) {
+            if (!token.isEmpty() && token.length() < MIN_TERM_LENGTH) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Terms of a keyword query: exact terms, prefix terms and literal words.
+     */
+    public static final class Parsed {
+        private final List<String> exact;
+        private final List<String> prefixes;
+        private final List<String> literals;
+
+        private Parsed(List<String> exact, List<String> prefixes, List<String> literals) {
+            this.exact = exact;
+            this.prefixes = prefixes;
+            this.literals = literals;
+        }
+
+        public List<String> getExact() {
+            return exact;
+        }
+
+        public List<String> getPrefixes() {
+            return prefixes;
+        }
+
+        public List<String> getLiterals() {
+            return literals;
+        }
+
+        public boolean isEmpty() {
+            return exact.isEmpty() && prefixes.isEmpty() && literals.isEmpty();
+        }
+    }
+}
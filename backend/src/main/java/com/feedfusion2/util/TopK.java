@@ -0,0 +1,49 @@
+package com.feedfusion2.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Bounded selection of the k greatest elements under a comparator.
+ * Keeps a min-heap of at most k elements, so offering n elements costs O(n log k) time and
+ * O(k) memory instead of sorting all n. Not thread-safe.
+ */
+public class TopK<T> {
+
+    private final int k;
+    private final Comparator<? super T> order;
+    private final PriorityQueue<T> heap; // Head is the weakest element kept
+
+    public TopK(int k, Comparator<? super T> order) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        this.k = k;
+        this.order = order;
+        this.heap = new PriorityQueue<>(Math.min(k, 1024), order);
+    }
+
+    /**
+     * @return this, for use as a reduce accumulator.
+     */
+    public TopK<T> offer(T value) {
+        if (heap.size() < k) {
+            heap.add(value);
+        } else if (order.compare(value, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(value);
+        }
+        return this;
+    }
+
+    /**
+     * @return The kept elements, greatest first.
+     */
+    public List<T> toList() {
+        List<T> sorted = new ArrayList<>(heap);
+        sorted.sort(order.reversed());
+        return sorted;
+    }
+}
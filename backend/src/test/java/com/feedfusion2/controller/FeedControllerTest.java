@@ -0,0 +1,74 @@
+package com.feedfusion2.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.feedfusion2.dto.FeedPage;
+import com.feedfusion2.service.FeedService;
+import com.feedfusion2.util.BinaryJackson2Encoder;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FeedControllerTest {
+
+    private final FeedService feedService = mock(FeedService.class);
+    private final WebTestClient client = WebTestClient.bindToController(new FeedController(feedService))
+            .httpMessageCodecs(codecs -> codecs.customCodecs().register(new BinaryJackson2Encoder(new ObjectMapper(new CBORFactory()), MediaType.APPLICATION_CBOR)))
+            .build();
+
+    @Test
+    void currentETagIsAnsweredWithoutQueryingTheFeed() {
+        when(feedService.getFeedETag(any(), any(), any())).thenReturn("\"v1\"");
+
+        client.get().uri("/api/feed?platform=reddit")
+                .header("If-None-Match", "\"v1\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+        verify(feedService, never()).getFeedPage(any(), any());
+    }
+
+    @Test
+    void staleETagGetsThePageWithTheCurrentETag() {
+        when(feedService.getFeedETag(any(), any(), any())).thenReturn("\"v2\"");
+        when(feedService.getFeedPage(any(), any()))
+                .thenReturn(Mono.just(new FeedPage(List.of(), null)));
+
+        client.get().uri("/api/feed?platform=reddit")
+                .header("If-None-Match", "\"v1\"")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"v2\"")
+                .expectBody().json("[]");
+    }
+
+    @Test
+    void eachRepresentationGetsItsOwnETag() {
+        when(feedService.getFeedETag(any(), any(), eq(MediaType.APPLICATION_JSON))).thenReturn("\"json\"");
+        when(feedService.getFeedETag(any(), any(), eq(MediaType.APPLICATION_CBOR))).thenReturn("\"cbor\"");
+        when(feedService.getFeedPage(any(), any()))
+                .thenReturn(Mono.just(new FeedPage(List.of(), null)));
+
+        client.get().uri("/api/feed")
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"cbor\"")
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR);
+        client.get().uri("/api/feed")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"json\"")
+                .expectHeader().contentType(MediaType.APPLICATION_JSON);
+    }
+}
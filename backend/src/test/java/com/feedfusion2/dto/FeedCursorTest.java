@@ -0,0 +1,44 @@
+package com.feedfusion2.dto;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FeedCursorTest {
+
+    private final Instant timestamp = Instant.ofEpochMilli(1_700_000_000_000L);
+    private final String id = new ObjectId().toHexString();
+
+    @Test
+    void roundTripsSourceAndShownClusters() {
+        List<String> clusters = List.of("00000000000000ff", "0123456789abcdef");
+        for (boolean timeline : new boolean[]{false, true}) {
+            FeedCursor plain = new FeedCursor(timestamp, id, timeline);
+            assertThat(FeedCursor.decode(plain.encode())).isEqualTo(plain);
+
+            FeedCursor withClusters = new FeedCursor(timestamp, id, timeline, clusters);
+            assertThat(FeedCursor.decode(withClusters.encode())).isEqualTo(withClusters);
+        }
+    }
+
+    @Test
+    void rejectsMalformedClusters() {
+        assertThatThrownBy(() -> FeedCursor.decode(encode(timestamp.toEpochMilli() + ":" + id + "::")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FeedCursor.decode(encode(timestamp.toEpochMilli() + ":" + id + "::not-hex")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FeedCursor.decode(encode(timestamp.toEpochMilli() + ":" + id + ":x:00ff")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
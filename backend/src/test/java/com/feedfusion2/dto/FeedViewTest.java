@@ -0,0 +1,35 @@
+package com.feedfusion2.dto;
+
+import com.feedfusion2.model.FeedPost;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FeedViewTest {
+
+    @Test
+    void cardIsDefaultAndFieldsOverrideTheView() {
+        assertThat(FeedView.resolve(null, null)).contains("id", "timestamp", "title", "mediaUrl").doesNotContain("fetchedAt");
+        assertThat(FeedView.resolve("full", null)).isNull();
+        assertThat(FeedView.resolve("full", "title,link")).containsExactlyInAnyOrder("id", "timestamp", "clusterId", "title", "link");
+        assertThatThrownBy(() -> FeedView.resolve(null, "title,searchTerms")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FeedView.resolve("huge", null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void projectKeepsOnlyRequestedFields() {
+        FeedPost post = new FeedPost();
+        post.setId("p1");
+        post.setTitle("Title");
+        post.setDescription("Long description");
+        post.setTimestamp(Instant.EPOCH);
+
+        FeedPost summary = FeedView.project(post, FeedView.resolve("summary", null));
+        assertThat(summary.getTitle()).isEqualTo("Title");
+        assertThat(summary.getDescription()).isNull();
+        assertThat(FeedView.project(post, null)).isSameAs(post);
+    }
+}
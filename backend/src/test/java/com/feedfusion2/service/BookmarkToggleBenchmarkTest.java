@@ -0,0 +1,64 @@
+package com.feedfusion2.service;
+
+import com.feedfusion2.model.User;
+import com.feedfusion2.repository.FeedPostRepository;
+import com.feedfusion2.repository.UserRepository;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent bookmark toggling against a real MongoDB: no change may be lost, and every
+ * effective change bumps the version exactly once. Throughput is printed, not asserted.
+ * Run with -Dbenchmark.mongodb.uri=mongodb://localhost:27017/feedfusion_benchmark (the database is dropped).
+ */
+@EnabledIfSystemProperty(named = "benchmark.mongodb.uri", matches = ".+")
+class BookmarkToggleBenchmarkTest {
+
+    private static final int POSTS = 50;
+    private static final int ROUNDS = 20;
+    private static final int CONCURRENCY = 64;
+
+    @Test
+    void concurrentTogglesAreNeverLost() {
+        String uri = System.getProperty("benchmark.mongodb.uri");
+        try (MongoClient client = MongoClients.create(uri)) {
+            ReactiveMongoTemplate template = new ReactiveMongoTemplate(client, uri.substring(uri.lastIndexOf('/') + 1));
+            template.getMongoDatabase().flatMap(database -> Mono.from(database.drop())).block();
+            ReactiveMongoRepositoryFactory factory = new ReactiveMongoRepositoryFactory(template);
+            UserRepository users = factory.getRepository(UserRepository.class);
+            FeedVersion feedVersion = new FeedVersion();
+            BookmarkService bookmarks = new BookmarkService(users, factory.getRepository(FeedPostRepository.class), feedVersion,
+                    new FeedRetention(template, new HotPostTier(null, null, new SimpleMeterRegistry()), feedVersion));
+            String userId = users.save(new User("bench", "bench@example.com", "hash")).block().getId();
+            List<String> postIds = IntStream.range(0, POSTS).mapToObj(i -> String.format("%024x", i)).collect(Collectors.toList());
+
+            // Every post is added and removed ROUNDS times, all posts in parallel, then added once more
+            long start = System.nanoTime();
+            Flux.fromIterable(postIds)
+                    .flatMap(postId -> Flux.range(0, ROUNDS)
+                            .concatMap(round -> bookmarks.addBookmark(userId, postId).then(bookmarks.removeBookmark(userId, postId))), CONCURRENCY)
+                    .blockLast();
+            Flux.fromIterable(postIds).flatMap(postId -> bookmarks.addBookmark(userId, postId), CONCURRENCY).blockLast();
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            User user = users.findById(userId).block();
+            assertThat(user.getBookmarkedPostIds()).containsExactlyInAnyOrderElementsOf(postIds);
+            assertThat(user.getBookmarksVersion()).isEqualTo((long) POSTS * (2 * ROUNDS + 1));
+            System.out.printf("Bookmark toggles: %.0f changes/s with %d in flight%n",
+                    POSTS * (2 * ROUNDS + 1) / seconds, CONCURRENCY);
+        }
+    }
+}
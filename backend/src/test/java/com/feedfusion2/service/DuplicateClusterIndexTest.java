@@ -0,0 +1,42 @@
+package com.feedfusion2.service;
+
+import com.feedfusion2.model.FeedPost;
+import com.feedfusion2.util.MinHash;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DuplicateClusterIndexTest {
+
+    private final DuplicateClusterIndex index = new DuplicateClusterIndex(null, null, new SimpleMeterRegistry(), 1000);
+
+    DuplicateClusterIndexTest() {
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "minSimilarity", 0.6);
+        ReflectionTestUtils.setField(index, "bucketSize", 8);
+    }
+
+    @Test
+    void nearDuplicatesJoinTheClusterOfTheFirstPost() {
+        FeedPost first = post("SpaceX Starship completes first full orbital flight and splashdown", "Discussion thread for the launch");
+        FeedPost repost = post("SpaceX Starship completes first full orbital flight & splashdown!", "Watch the full replay");
+        FeedPost unrelated = post("Rust 1.80 released with lazy cell and exclusive ranges", "Release notes");
+
+        index.assign(first);
+        index.assign(repost);
+        index.assign(unrelated);
+
+        assertThat(first.getClusterId()).isEqualTo(MinHash.id(first.getMinHash()));
+        assertThat(repost.getClusterId()).isEqualTo(first.getClusterId());
+        assertThat(unrelated.getClusterId()).isNotEqualTo(first.getClusterId());
+    }
+
+    private FeedPost post(String title, String description) {
+        FeedPost post = new FeedPost();
+        post.setTitle(title);
+        post.setDescription(description);
+        return post;
+    }
+}
@@ -0,0 +1,119 @@
+package com.feedfusion2.service;
+
+import com.feedfusion2.model.FeedPost;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FeedIngestionServiceTest {
+
+    private final RedditService redditService = mock(RedditService.class);
+    private final YouTubeService youtubeService = mock(YouTubeService.class);
+    private final FeedPostBulkWriter writer = mock(FeedPostBulkWriter.class);
+    private final UpstreamFetchCoalescer fetchCoalescer = mock(UpstreamFetchCoalescer.class);
+    private final FeedVersion feedVersion = new FeedVersion();
+    private final FeedIngestionService ingestion = new FeedIngestionService(redditService, youtubeService, writer, fetchCoalescer,
+            new HotPostTier(null, null, new SimpleMeterRegistry()), new TimelineService(new SimpleMeterRegistry()), feedVersion,
+            mock(TrendingTopics.class));
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(ingestion, "ingestEnabled", true);
+        ReflectionTestUtils.setField(ingestion, "maxTrackedInterests", 500);
+        ReflectionTestUtils.setField(ingestion, "engagementRefreshEvery", 2);
+        ReflectionTestUtils.setField(ingestion, "concurrency", 4);
+        ReflectionTestUtils.setField(ingestion, "redditEnabled", true);
+        ReflectionTestUtils.setField(ingestion, "redditInterval", Duration.ofHours(1));
+        ReflectionTestUtils.setField(ingestion, "youtubeEnabled", true);
+        ReflectionTestUtils.setField(ingestion, "youtubeInterval", Duration.ofHours(1));
+        when(fetchCoalescer.fetch(anyString(), anyString(), any()))
+                .thenAnswer(invocation -> ((Supplier<Flux<FeedPost>>) invocation.getArgument(2)).get());
+    }
+
+    @AfterEach
+    void tearDown() {
+        ingestion.stop();
+    }
+
+    @Test
+    void tracksInterestsUpToTheConfiguredLimit() {
+        ReflectionTestUtils.setField(ingestion, "maxTrackedInterests", 2);
+
+        ingestion.trackInterests(List.of(" Java ", "java", "", "rust", "go"));
+        ingestion.trackInterests(List.of("kotlin"));
+
+        assertThat(ingestion.getTrackedInterests()).containsExactlyInAnyOrder("java", "rust");
+    }
+
+    @Test
+    void newInterestsAreRefreshedOnEveryProviderAndOneFailingInterestDoesNotStopTheOthers() throws InterruptedException {
+        when(redditService.fetchRedditPosts("java")).thenReturn(Flux.error(new IllegalStateException("HTTP 429")));
+        when(redditService.fetchRedditPosts("rust")).thenReturn(Flux.just(post("reddit/rust")));
+        when(youtubeService.fetchYouTubeVideos("java")).thenReturn(Flux.just(post("youtube/java")));
+        when(youtubeService.fetchYouTubeVideos("rust")).thenReturn(Flux.just(post("youtube/rust")));
+        Queue<FeedPost> written = new ConcurrentLinkedQueue<>();
+        CountDownLatch refreshes = new CountDownLatch(4); // Two interests on two providers
+        when(writer.write(any(), anyBoolean())).thenAnswer(invocation -> ((Flux<FeedPost>) invocation.getArgument(0))
+                .doOnNext(written::add)
+                .doOnComplete(refreshes::countDown));
+        ingestion.start();
+        long version = feedVersion.current();
+
+        ingestion.trackInterests(List.of("Java", "rust"));
+
+        assertThat(refreshes.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(written).extracting(FeedPost::getLink).containsExactlyInAnyOrder("reddit/rust", "youtube/java", "youtube/rust");
+        assertThat(written).filteredOn(post -> post.getLink().equals("youtube/java"))
+                .extracting(FeedPost::getInterests).containsExactly(List.of("java"));
+        assertThat(feedVersion.current()).isGreaterThan(version);
+    }
+
+    @Test
+    void everyNthProviderTickAlsoRefreshesEngagement() throws InterruptedException {
+        ReflectionTestUtils.setField(ingestion, "redditInterval", Duration.ofMillis(20));
+        ReflectionTestUtils.setField(ingestion, "youtubeEnabled", false);
+        ingestion.trackInterests(List.of("java")); // Not started yet, so no immediate refresh
+        when(redditService.fetchRedditPosts("java")).thenReturn(Flux.empty());
+        List<Boolean> engagementRefreshes = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch ticks = new CountDownLatch(4);
+        when(writer.write(any(), anyBoolean())).thenAnswer(invocation -> {
+            engagementRefreshes.add(invocation.getArgument(1));
+            ticks.countDown();
+            return Flux.empty();
+        });
+
+        ingestion.start();
+
+        assertThat(ticks.await(5, TimeUnit.SECONDS)).isTrue();
+        ingestion.stop();
+        assertThat(List.copyOf(engagementRefreshes).subList(0, 4)).containsExactly(true, false, true, false);
+    }
+
+    private static FeedPost post(String link) {
+        FeedPost post = new FeedPost();
+        post.setLink(link);
+        post.setPlatform(link.substring(0, link.indexOf('/')));
+        return post;
+    }
+}
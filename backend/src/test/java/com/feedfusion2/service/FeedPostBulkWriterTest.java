@@ -0,0 +1,163 @@
+package com.feedfusion2.service;
+
+import com.feedfusion2.model.FeedPost;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonObjectId;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FeedPostBulkWriterTest {
+
+    private final ReactiveMongoTemplate mongoTemplate = mock(ReactiveMongoTemplate.class);
+    private final ReactiveBulkOperations bulk = mock(ReactiveBulkOperations.class);
+    private final SeenLinkFilter seenLinkFilter = new SeenLinkFilter(mongoTemplate, new SimpleMeterRegistry(), 1_000, 0.001);
+    private final FeedVersion feedVersion = new FeedVersion();
+    private FeedPostBulkWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(seenLinkFilter, "enabled", true);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HotPostTier hotPostTier = new HotPostTier(null, null, registry);
+        writer = new FeedPostBulkWriter(mongoTemplate, seenLinkFilter, new DuplicateClusterIndex(null, null, registry, 1000),
+                hotPostTier, feedVersion, new FeedRetention(mongoTemplate, hotPostTier, feedVersion),
+                new FeedPostJsonCache(null, registry, 100), new TimelineService(registry));
+        ReflectionTestUtils.setField(writer, "batchSize", 100);
+
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.getCollectionName(FeedPost.class)).thenReturn("feed_posts");
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FeedPost.class)).thenReturn(bulk);
+    }
+
+    @Test
+    void insertsNewPostsOnlyIfAbsentWithTheInterestsOfTheirDuplicates() {
+        stored();
+        String firstId = new ObjectId().toHexString();
+        when(bulk.execute()).thenReturn(Mono.just(result(new BulkWriteUpsert(0, new BsonObjectId(new ObjectId(firstId))))));
+
+        List<FeedPost> inserted = writer.write(Flux.just(post("a", "java"), post("b", "java"), post("a", "rust"))).collectList().block();
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, times(2)).upsert(any(Query.class), update.capture());
+        Document first = update.getAllValues().get(0).getUpdateObject();
+        assertThat((Document) first.get("$setOnInsert")).containsEntry("link", "a").containsEntry("title", "Post a")
+                .doesNotContainKey("interests");
+        assertThat(first.get("$addToSet")).isEqualTo(new Update().addToSet("interests").each("java", "rust").getUpdateObject().get("$addToSet"));
+
+        // Only upserts that inserted come back (b was inserted concurrently by another writer)
+        assertThat(inserted).extracting(FeedPost::getLink).containsExactly("a");
+        assertThat(inserted.get(0).getId()).isEqualTo(firstId);
+        assertThat(seenLinkFilter.isTagged("a", List.of("java", "rust"))).isTrue();
+    }
+
+    @Test
+    void knownTaggedPostsSkipMongoUntilAnEngagementRefresh() {
+        seenLinkFilter.markStored(List.of("a"));
+        seenLinkFilter.markTagged("a", List.of("java"));
+        FeedPost fetched = post("a", "java");
+        fetched.setScore(40L);
+        fetched.setCommentCount(3L);
+
+        assertThat(writer.write(Flux.just(fetched)).collectList().block()).isEmpty();
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Document.class), eq("feed_posts"));
+
+        stored(new Document("_id", new ObjectId()).append("link", "a").append("timestamp", new Date())
+                .append("interests", List.of("java")).append("score", 10L).append("commentCount", 5L));
+        when(bulk.execute()).thenReturn(Mono.just(result()));
+        long version = feedVersion.current();
+
+        writer.write(Flux.just(fetched), true).blockLast();
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(bulk).updateOne(any(Query.class), update.capture());
+        Document counters = update.getValue().getUpdateObject();
+        assertThat((Document) counters.get("$set")).containsEntry("score", 40L);
+        assertThat((Document) counters.get("$max")).containsEntry("commentCount", 5L); // A stale count never lowers the stored one
+        assertThat(counters).doesNotContainKey("$addToSet");
+        assertThat(feedVersion.current()).isEqualTo(version); // Counters alone do not change the feed version
+    }
+
+    @Test
+    void bulkErrorsOnlyDropTheFailedPosts() {
+        stored(storedPost("s1", "java"), storedPost("s2", "java"));
+        String newId = new ObjectId().toHexString();
+        BulkWriteResult partial = result(new BulkWriteUpsert(0, new BsonObjectId(new ObjectId(newId))));
+        BulkWriteError s2Failed = new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 2);
+        when(bulk.execute()).thenReturn(Mono.error(new BulkOperationException("Bulk write failed",
+                new MongoBulkWriteException(partial, List.of(s2Failed), null, new ServerAddress(), Set.of()))));
+        long version = feedVersion.current();
+
+        // Operations: n (index 0), then the retags of s1 (1) and s2 (2)
+        List<FeedPost> inserted = writer.write(Flux.just(post("n", "rust"), post("s1", "rust"), post("s2", "rust"))).collectList().block();
+
+        assertThat(inserted).extracting(FeedPost::getId).containsExactly(newId);
+        assertThat(seenLinkFilter.isTagged("s1", List.of("rust"))).isTrue();
+        assertThat(seenLinkFilter.isTagged("s2", List.of("rust"))).isFalse(); // Retried on the next fetch
+        assertThat(feedVersion.current()).isEqualTo(version + 1);
+    }
+
+    private void stored(Document... posts) {
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("feed_posts"))).thenReturn(Flux.just(posts));
+    }
+
+    private static Document storedPost(String link, String interest) {
+        return new Document("_id", new ObjectId()).append("link", link).append("timestamp", new Date())
+                .append("interests", List.of(interest));
+    }
+
+    private static BulkWriteResult result(BulkWriteUpsert... upserts) {
+        return BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(upserts), List.of());
+    }
+
+    private static FeedPost post(String link, String interest) {
+        FeedPost post = new FeedPost();
+        post.setLink(link);
+        post.setTitle("Post " + link);
+        post.setPlatform("reddit");
+        post.setTimestamp(Instant.parse("2024-05-01T10:15:30Z"));
+        post.setInterests(List.of(interest));
+        return post;
+    }
+}
@@ -0,0 +1,58 @@
+package com.feedfusion2.service;
+
+import com.feedfusion2.model.FeedPost;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeedRankerTest {
+
+    private final EngagementRecencyScorer scorer = new EngagementRecencyScorer();
+    private final FeedRanker ranker = new FeedRanker(scorer, Duration.ofMinutes(1));
+    private final Instant now = Instant.now();
+
+    FeedRankerTest() {
+        ReflectionTestUtils.setField(scorer, "halfLife", Duration.ofHours(12));
+        ReflectionTestUtils.setField(scorer, "recencyWeight", 1.0);
+        ReflectionTestUtils.setField(scorer, "engagementWeight", 0.6);
+        ReflectionTestUtils.setField(scorer, "interestWeight", 0.4);
+    }
+
+    @Test
+    void engagementAndInterestMatchOutrankASlightlyNewerPost() {
+        FeedPost fresh = post("fresh", "Weekend photos", now, 0L);
+        FeedPost popular = post("popular", "Kotlin coroutines explained", now.minus(Duration.ofHours(2)), 50_000L);
+        FeedPost stale = post("stale", "Kotlin news", now.minus(Duration.ofDays(10)), 100_000L);
+
+        List<FeedPost> top = ranker.top(Flux.just(fresh, stale, popular), List.of("kotlin"), 2).block();
+
+        assertThat(top.stream().map(FeedPost::getId).collect(Collectors.toList())).containsExactly("popular", "fresh");
+    }
+
+    @Test
+    void resubscribingRanksAfresh() {
+        FeedPost fresh = post("fresh", "Weekend photos", now, 0L);
+        FeedPost popular = post("popular", "Kotlin coroutines explained", now.minus(Duration.ofHours(2)), 50_000L);
+        Mono<List<FeedPost>> top = ranker.top(Flux.just(fresh, popular), List.of("kotlin"), 2);
+
+        assertThat(top.block()).hasSize(2);
+        assertThat(top.block()).extracting(FeedPost::getId).containsExactly("popular", "fresh"); // Not merged with the first run
+    }
+
+    private FeedPost post(String id, String title, Instant timestamp, Long score) {
+        FeedPost post = new FeedPost();
+        post.setId(id);
+        post.setTitle(title);
+        post.setTimestamp(timestamp);
+        post.setScore(score);
+        return post;
+    }
+}
@@ -0,0 +1,118 @@
+package com.feedfusion2.service;
+
+import com.feedfusion2.dto.FeedCursor;
+import com.feedfusion2.dto.FeedQuery;
+import com.feedfusion2.model.FeedPost;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotPostTierTest {
+
+    private final List<FeedPost> reddit = new ArrayList<>(); // Oldest first
+    private HotPostTier tier;
+
+    @BeforeEach
+    void setUp() {
+        tier = new HotPostTier(null, null, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(tier, "enabled", true);
+        ReflectionTestUtils.setField(tier, "capacity", 3);
+        ReflectionTestUtils.setField(tier, "ready", true);
+        for (int i = 0; i < 5; i++) {
+            FeedPost post = new FeedPost();
+            post.setId(new ObjectId().toHexString());
+            post.setPlatform("reddit");
+            post.setTimestamp(Instant.ofEpochSecond(1_700_000_000L + i));
+            reddit.add(post);
+            tier.add(post);
+        }
+    }
+
+    @Test
+    void servesPagesThatFitAboveTheEvictedPosts() {
+        assertThat(tier.find(query(null, 3))).contains(List.of(reddit.get(4), reddit.get(3), reddit.get(2)));
+        assertThat(tier.find(query(null, 4))).isEmpty(); // Would need the evicted posts
+    }
+
+    @Test
+    void continuesFromCursorOnlyWhileTheShardIsComplete() {
+        FeedPost newest = reddit.get(4);
+        FeedQuery afterNewest = query(new FeedCursor(newest.getTimestamp(), newest.getId()), 2);
+        assertThat(tier.find(afterNewest)).contains(List.of(reddit.get(3), reddit.get(2)));
+
+        FeedPost second = reddit.get(3);
+        assertThat(tier.find(query(new FeedCursor(second.getTimestamp(), second.getId()), 2))).isEmpty();
+    }
+
+    @Test
+    void filtersByInterestIncludingTagsAddedLater() {
+        reddit.get(4).setInterests(List.of("java"));
+        reddit.get(2).setInterests(List.of("rust"));
+        tier.tag(reddit.get(3), List.of("java"));
+
+        FeedQuery query = query(null, 2);
+        query.setInterests(List.of("java"));
+        assertThat(tier.find(query)).contains(List.of(reddit.get(4), reddit.get(3)));
+        assertThat(reddit.get(3).getInterests()).containsExactly("java");
+    }
+
+    @Test
+    void untaggedPostsMatchAnyInterest() {
+        reddit.get(4).setInterests(List.of("rust"));
+        reddit.get(3).setInterests(List.of("java"));
+
+        FeedQuery query = query(null, 2);
+        query.setInterests(List.of("java"));
+        assertThat(tier.find(query)).contains(List.of(reddit.get(3), reddit.get(2))); // 2 was stored before tagging
+    }
+
+    @Test
+    void skipsExpiredPostsAndPostsOutsideTheWindow() {
+        reddit.get(4).setExpireAt(Instant.now().minusSeconds(1));
+        tier.setExpireAt(reddit.get(3), Instant.now().plusSeconds(60));
+
+        FeedQuery query = query(null, 1);
+        query.setUntil(reddit.get(3).getTimestamp());
+        assertThat(tier.find(query)).contains(List.of(reddit.get(2)));
+        assertThat(tier.find(query(null, 1))).contains(List.of(reddit.get(3)));
+    }
+
+    @Test
+    void takesNewEngagementCountersOfTheStoredPost() {
+        FeedPost refetched = new FeedPost();
+        refetched.setId(reddit.get(4).getId());
+        refetched.setPlatform("reddit");
+        refetched.setTimestamp(reddit.get(4).getTimestamp());
+        refetched.setScore(42L);
+        refetched.setCommentCount(7L);
+        tier.setEngagement(refetched);
+
+        FeedPost served = tier.find(query(null, 1)).orElseThrow().get(0);
+        assertThat(served.getScore()).isEqualTo(42L);
+        assertThat(served.getCommentCount()).isEqualTo(7L);
+    }
+
+    @Test
+    void missesKeywordQueries() {
+        FeedQuery query = query(null, 1);
+        query.setKeyword("java");
+        assertThat(tier.find(query)).isEqualTo(Optional.empty());
+    }
+
+    private FeedQuery query(FeedCursor after, int limit) {
+        FeedQuery query = new FeedQuery();
+        query.setPlatform("reddit");
+        query.setAfter(after);
+        query.setLimit(limit);
+        return query;
+    }
+}
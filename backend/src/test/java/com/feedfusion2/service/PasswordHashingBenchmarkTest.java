@@ -0,0 +1,69 @@
+package com.feedfusion2.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Admission control of the hashing pool, and BCrypt hashes per second on one thread (one core)
+ * for a few cost factors. Throughput is printed, not asserted, and only measured with -Dbenchmark=true.
+ */
+class PasswordHashingBenchmarkTest {
+
+    @Test
+    void rejectsRightAwayWhenThePoolAndQueueAreFull() {
+        PasswordHashing hashing = new PasswordHashing(new BCryptPasswordEncoder(10), new SimpleMeterRegistry(), 1, 1);
+        try {
+            List<String> results = Flux.range(0, 8)
+                    .flatMap(i -> hashing.encode("password" + i)
+                            .map(hash -> "hashed")
+                            .onErrorResume(RejectedExecutionException.class, e -> Mono.just("rejected")))
+                    .collectList()
+                    .block();
+            assertThat(results).contains("hashed", "rejected");
+            assertThat(results.stream().filter("hashed"::equals).count()).isLessThanOrEqualTo(2); // One thread: one running, one queued
+        } finally {
+            hashing.stop();
+        }
+    }
+
+    @Test
+    void queueBoundsThePoolNotEachThread() {
+        PasswordHashing hashing = new PasswordHashing(new BCryptPasswordEncoder(10), new SimpleMeterRegistry(), 2, 2);
+        try {
+            long hashed = Flux.range(0, 16)
+                    .flatMap(i -> hashing.encode("password" + i)
+                            .map(hash -> 1)
+                            .onErrorResume(RejectedExecutionException.class, e -> Mono.empty()))
+                    .count()
+                    .block();
+            assertThat(hashed).isBetween(2L, 4L); // Two running, two queued in total
+        } finally {
+            hashing.stop();
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void hashesPerSecondPerCore() {
+        for (int strength : new int[] {8, 10, 12}) {
+            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+            String hash = encoder.encode("warm-up");
+            int iterations = Math.max(2, 64 >> (strength - 8));
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                encoder.matches("password", hash);
+            }
+            System.out.printf("BCrypt strength %d: %.1f checks/s on one thread%n",
+                    strength, iterations / ((System.nanoTime() - start) / 1e9));
+        }
+    }
+}
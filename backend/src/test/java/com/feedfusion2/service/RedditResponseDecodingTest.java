@@ -0,0 +1,92 @@
+package com.feedfusion2.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.feedfusion2.dto.RedditDataDto;
+import com.feedfusion2.model.FeedPost;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RedditResponseDecodingTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void decodesOnlyTheFieldsFeedPostNeeds() throws Exception {
+        RedditDataDto listing = objectMapper.readValue(listingJson(2), RedditDataDto.class);
+
+        List<FeedPost> posts = new RedditService(WebClient.create()).parseRedditResponse(listing).collectList().block();
+
+        assertThat(posts).hasSize(2);
+        FeedPost first = posts.get(0);
+        assertThat(first.getPlatform()).isEqualTo("reddit");
+        assertThat(first.getTitle()).isEqualTo("Post 0");
+        assertThat(first.getAuthor()).isEqualTo("author0");
+        assertThat(first.getLink()).isEqualTo("https://www.reddit.com/r/java/comments/p0/");
+        assertThat(first.getMediaUrl()).isNull(); // "self" is not a thumbnail URL
+        assertThat(first.getTimestamp()).isEqualTo(Instant.ofEpochSecond(1_700_000_000L));
+    }
+
+    @Test
+    void typedDecodingAllocatesLessThanTheMapPath() throws Exception {
+        byte[] json = listingJson(100);
+        // Warm up both paths so class loading and JIT do not count
+        for (int i = 0; i < 50; i++) {
+            objectMapper.readValue(json, Map.class);
+            objectMapper.readValue(json, RedditDataDto.class);
+        }
+
+        long mapBytes = allocatedBytes(() -> objectMapper.readValue(json, Map.class));
+        long dtoBytes = allocatedBytes(() -> objectMapper.readValue(json, RedditDataDto.class));
+
+        assertThat(dtoBytes).isLessThan(mapBytes);
+    }
+
+    private long allocatedBytes(ThrowingRunnable decode) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 20; i++) {
+            decode.run();
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / 20;
+    }
+
+    // A hot.json-shaped listing padded with the kind of fields Reddit returns but FeedPost never reads
+    private static byte[] listingJson(int posts) {
+        StringBuilder json = new StringBuilder("{\"kind\":\"Listing\",\"data\":{\"after\":\"t3_x\",\"dist\":").append(posts).append(",\"children\":[");
+        for (int i = 0; i < posts; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"kind\":\"t3\",\"data\":{")
+                    .append("\"id\":\"p").append(i).append("\",")
+                    .append("\"title\":\"Post ").append(i).append("\",")
+                    .append("\"author\":\"author").append(i).append("\",")
+                    .append("\"permalink\":\"/r/java/comments/p").append(i).append("/\",")
+                    .append("\"selftext\":\"Body of post ").append(i).append("\",")
+                    .append("\"thumbnail\":\"self\",")
+                    .append("\"created_utc\":1700000000.0,");
+            for (int f = 0; f < 80; f++) {
+                json.append("\"unused_field_").append(f).append("\":\"value ").append(f).append(" of post ").append(i).append("\",");
+            }
+            json.append("\"all_awardings\":[{\"name\":\"a\",\"count\":1},{\"name\":\"b\",\"count\":2}],")
+                    .append("\"media_metadata\":{\"x\":{\"status\":\"valid\",\"s\":{\"u\":\"https://i.redd.it/x.png\",\"x\":640,\"y\":480}}}")
+                    .append("}}");
+        }
+        json.append("]}}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,86 @@
+package com.feedfusion2.service;
+
+import com.feedfusion2.dto.FeedCursor;
+import com.feedfusion2.dto.FeedQuery;
+import com.feedfusion2.model.FeedPost;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimelineServiceTest {
+
+    private TimelineService timelines;
+
+    @BeforeEach
+    void setUp() {
+        timelines = new TimelineService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(timelines, "enabled", true);
+        ReflectionTestUtils.setField(timelines, "capacity", 10);
+        ReflectionTestUtils.setField(timelines, "maxUsers", 10);
+    }
+
+    @Test
+    void userTimelineMergesInterestsAndReceivesLaterPosts() {
+        FeedPost java = post(1, "reddit");
+        FeedPost rust = post(2, "youtube");
+        FeedPost other = post(3, "reddit");
+        timelines.fanOut(java, Set.of("java"));
+        timelines.fanOut(rust, Set.of("rust"));
+        timelines.fanOut(other, Set.of("golang"));
+
+        // Materialized from the interest timelines on first read
+        assertThat(timelines.readPage("alice", List.of("Java", "rust"), query(2))).contains(List.of(FeedCursor.of(rust), FeedCursor.of(java)));
+
+        // Fanned out on write afterwards, once even if it matches both interests
+        FeedPost both = post(4, "reddit");
+        timelines.fanOut(both, Set.of("java", "rust"));
+        assertThat(timelines.readPage("alice", List.of("java", "rust"), query(3)))
+                .contains(List.of(FeedCursor.of(both), FeedCursor.of(rust), FeedCursor.of(java)));
+    }
+
+    @Test
+    void shortTimelineFallsBackToRegularFeed() {
+        timelines.fanOut(post(1, "reddit"), Set.of("java"));
+        assertThat(timelines.readPage("bob", List.of("java"), query(2))).isEmpty();
+    }
+
+    @Test
+    void timelineCursorStaysInTheTimelineAndRegularCursorStaysOut() {
+        FeedPost newest = post(3, "reddit");
+        FeedPost middle = post(2, "reddit");
+        FeedPost oldest = post(1, "reddit");
+        List.of(newest, middle, oldest).forEach(post -> timelines.fanOut(post, Set.of("java")));
+        assertThat(timelines.readPage("carol", List.of("java"), query(2))).contains(List.of(FeedCursor.of(newest), FeedCursor.of(middle)));
+
+        // The last, short page still comes from the timeline
+        FeedQuery next = query(2);
+        next.setAfter(new FeedCursor(middle.getTimestamp(), middle.getId(), true));
+        assertThat(timelines.readPage("carol", List.of("java"), next)).contains(List.of(FeedCursor.of(oldest)));
+
+        FeedQuery regular = query(2);
+        regular.setAfter(FeedCursor.decode(new FeedCursor(newest.getTimestamp(), newest.getId()).encode()));
+        assertThat(timelines.readPage("carol", List.of("java"), regular)).isEmpty();
+    }
+
+    private static FeedPost post(long second, String platform) {
+        FeedPost post = new FeedPost();
+        post.setId(new ObjectId().toHexString());
+        post.setPlatform(platform);
+        post.setTimestamp(Instant.ofEpochSecond(second));
+        return post;
+    }
+
+    private static FeedQuery query(int limit) {
+        FeedQuery query = new FeedQuery();
+        query.setLimit(limit);
+        return query;
+    }
+}
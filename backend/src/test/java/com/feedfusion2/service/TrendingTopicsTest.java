@@ -0,0 +1,61 @@
+package com.feedfusion2.service;
+
+import com.feedfusion2.dto.TrendingTopic;
+import com.feedfusion2.model.FeedPost;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrendingTopicsTest {
+
+    private final TrendingTopics trending = new TrendingTopics(new SimpleMeterRegistry(), Duration.ofMinutes(5), 12, 3, 1024, 4);
+
+    TrendingTopicsTest() {
+        ReflectionTestUtils.setField(trending, "enabled", true);
+    }
+
+    @Test
+    void ranksTermsByHowManyNewPostsMentionThem() {
+        trending.record(post("Starship launch window opens"));
+        trending.record(post("Starship launch scrubbed again"));
+        trending.record(post("Starship static fire"));
+        trending.record(post("The new Rust release"));
+
+        trending.refresh();
+
+        List<TrendingTopic> top = trending.top(2);
+        assertThat(top).extracting(TrendingTopic::getTerm).containsExactly("starship", "launch");
+        assertThat(top.get(0).getCount()).isGreaterThanOrEqualTo(3);
+        assertThat(trending.top(10)).hasSizeLessThanOrEqualTo(3)
+                .extracting(TrendingTopic::getTerm).doesNotContain("the", "new");
+    }
+
+    @Test
+    void skipsPostsPublishedBeforeTheWindow() {
+        for (int i = 0; i < 3; i++) {
+            FeedPost backfilled = post("Archived mainframe story");
+            backfilled.setTimestamp(Instant.now().minus(Duration.ofDays(2)));
+            trending.record(backfilled);
+        }
+        FeedPost recent = post("Starship launch");
+        recent.setTimestamp(Instant.now().minus(Duration.ofMinutes(20)));
+        trending.record(recent);
+
+        trending.refresh();
+
+        assertThat(trending.top(10)).extracting(TrendingTopic::getTerm)
+                .contains("starship", "launch").doesNotContain("archived", "mainframe", "story");
+    }
+
+    private FeedPost post(String title) {
+        FeedPost post = new FeedPost();
+        post.setTitle(title);
+        return post;
+    }
+}
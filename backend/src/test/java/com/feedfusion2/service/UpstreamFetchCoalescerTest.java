@@ -0,0 +1,101 @@
+package com.feedfusion2.service;
+
+import com.feedfusion2.model.FeedPost;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UpstreamFetchCoalescerTest {
+
+    private final UpstreamFetchCoalescer coalescer = new UpstreamFetchCoalescer(new SimpleMeterRegistry());
+    private final AtomicInteger calls = new AtomicInteger();
+    private VirtualTimeScheduler time;
+
+    @BeforeEach
+    void setUp() {
+        time = VirtualTimeScheduler.getOrSet(); // Drives the result TTL and the upstream timeout
+        ReflectionTestUtils.setField(coalescer, "resultTtl", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(coalescer, "upstreamTimeout", Duration.ofSeconds(20));
+    }
+
+    @AfterEach
+    void tearDown() {
+        VirtualTimeScheduler.reset();
+    }
+
+    @Test
+    void concurrentCallersShareOneUpstreamCall() {
+        Sinks.Many<FeedPost> upstream = Sinks.many().unicast().onBackpressureBuffer();
+        List<FeedPost> first = new ArrayList<>();
+        List<FeedPost> second = new ArrayList<>();
+        coalescer.fetch("reddit", "Java", counted(upstream::asFlux)).subscribe(first::add);
+        coalescer.fetch("reddit", " java ", counted(upstream::asFlux)).subscribe(second::add);
+
+        upstream.tryEmitNext(post("https://example.com/1"));
+        upstream.tryEmitComplete();
+
+        assertThat(calls).hasValue(1);
+        assertThat(first).extracting(FeedPost::getLink).containsExactly("https://example.com/1");
+        assertThat(second).extracting(FeedPost::getLink).containsExactly("https://example.com/1");
+        assertThat(first.get(0)).isNotSameAs(second.get(0)); // Each caller tags its own copy
+    }
+
+    @Test
+    void completedResultIsReusedUntilTheTtlRunsOut() {
+        Supplier<Flux<FeedPost>> upstream = counted(() -> Flux.just(post("https://example.com/1")));
+        FeedPost first = coalescer.fetch("reddit", "java", upstream).blockFirst();
+        first.setInterests(List.of()); // Changed in place by the first caller
+
+        FeedPost replayed = coalescer.fetch("reddit", "java", upstream).blockFirst();
+        assertThat(calls).hasValue(1);
+        assertThat(replayed.getInterests()).containsExactly("java");
+
+        time.advanceTimeBy(Duration.ofSeconds(31));
+        coalescer.fetch("reddit", "java", upstream).blockLast();
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void failuresAndTimeoutsAreNotCached() {
+        Supplier<Flux<FeedPost>> failing = counted(() -> Flux.error(new IllegalStateException("HTTP 503")));
+        assertThatThrownBy(() -> coalescer.fetch("youtube", "java", failing).blockLast()).hasMessageContaining("HTTP 503");
+
+        Sinks.Many<FeedPost> hung = Sinks.many().unicast().onBackpressureBuffer();
+        AtomicInteger errors = new AtomicInteger();
+        coalescer.fetch("youtube", "java", counted(hung::asFlux)).subscribe(post -> { }, e -> errors.incrementAndGet());
+        time.advanceTimeBy(Duration.ofSeconds(21));
+        assertThat(errors).hasValue(1);
+
+        assertThat(coalescer.fetch("youtube", "java", counted(() -> Flux.just(post("https://example.com/1")))).blockLast())
+                .isNotNull();
+        assertThat(calls).hasValue(3);
+    }
+
+    private Supplier<Flux<FeedPost>> counted(Supplier<Flux<FeedPost>> upstream) {
+        return () -> {
+            calls.incrementAndGet();
+            return upstream.get();
+        };
+    }
+
+    private static FeedPost post(String link) {
+        FeedPost post = new FeedPost();
+        post.setLink(link);
+        post.setInterests(List.of("java"));
+        return post;
+    }
+}
@@ -0,0 +1,112 @@
+package com.feedfusion2.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.feedfusion2.model.FeedPost;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Payload size and serialization throughput of a feed page in JSON, CBOR and Smile, with the
+ * mappers configured the way CodecConfig does. Throughput is printed, not asserted, and only
+ * measured when run with -Dbenchmark=true.
+ */
+class BinaryCodecBenchmarkTest {
+
+    private static final TypeReference<List<FeedPost>> POST_LIST = new TypeReference<>() {};
+    private static final int ITERATIONS = 300;
+
+    private final ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper cborMapper = configured(new ObjectMapper(new CBORFactory()));
+    private final ObjectMapper smileMapper = configured(new ObjectMapper(new SmileFactory()));
+    private final List<FeedPost> page = IntStream.range(0, 200).mapToObj(BinaryCodecBenchmarkTest::post).collect(Collectors.toList());
+
+    @Test
+    void binaryEncodingsRoundTripAndAreSmallerThanJson() throws Exception {
+        byte[] json = jsonMapper.writeValueAsBytes(page);
+        byte[] cborBytes = cborMapper.writeValueAsBytes(page);
+        byte[] smile = smileMapper.writeValueAsBytes(page);
+
+        assertThat(cborMapper.readValue(cborBytes, POST_LIST)).isEqualTo(page);
+        assertThat(smileMapper.readValue(smile, POST_LIST)).isEqualTo(page);
+        assertThat(cborBytes.length).isLessThan(json.length);
+        assertThat(smile.length).isLessThan(json.length);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void encodeAndDecodeThroughput() throws Exception {
+        for (Map.Entry<String, ObjectMapper> mapper : Map.of("JSON", jsonMapper, "CBOR", cborMapper, "Smile", smileMapper).entrySet()) {
+            System.out.printf("%s: encode %.0f pages/s, decode %.0f pages/s%n", mapper.getKey(),
+                    pagesPerSecond(() -> mapper.getValue().writeValueAsBytes(page)),
+                    pagesPerSecond(() -> mapper.getValue().readValue(mapper.getValue().writeValueAsBytes(page), POST_LIST)));
+        }
+    }
+
+    @Test
+    void fluxBodiesAreWrittenAsOneBinaryArray() throws Exception {
+        assertThat(cborMapper.readValue(encodeFlux(cborMapper, MediaType.APPLICATION_CBOR), POST_LIST)).isEqualTo(page.subList(0, 3));
+        assertThat(smileMapper.readValue(encodeFlux(smileMapper, new MediaType("application", "x-jackson-smile")), POST_LIST))
+                .isEqualTo(page.subList(0, 3));
+    }
+
+    private byte[] encodeFlux(ObjectMapper mapper, MediaType mediaType) {
+        BinaryJackson2Encoder encoder = new BinaryJackson2Encoder(mapper, mediaType);
+        DataBuffer buffer = DataBufferUtils.join(encoder.encode(Flux.fromIterable(page.subList(0, 3)),
+                DefaultDataBufferFactory.sharedInstance, ResolvableType.forClass(FeedPost.class), mediaType, Map.of())).block();
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        return bytes;
+    }
+
+    private static double pagesPerSecond(ThrowingRunnable encode) throws Exception {
+        for (int i = 0; i < ITERATIONS / 3; i++) {
+            encode.run(); // Warm-up
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            encode.run();
+        }
+        return ITERATIONS / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static ObjectMapper configured(ObjectMapper mapper) {
+        Jackson2ObjectMapperBuilder.json().configure(mapper); // Same modules and features as CodecConfig
+        return mapper;
+    }
+
+    private static FeedPost post(int i) {
+        FeedPost post = new FeedPost();
+        post.setId(String.format("%024x", i));
+        post.setTitle("Post number " + i + " about reactive streams");
+        post.setDescription("A longer description of post " + i + ", the kind of text a Reddit self post or YouTube video carries.");
+        post.setAuthor("author" + (i % 17));
+        post.setLink("https://www.reddit.com/r/java/comments/" + i);
+        post.setMediaUrl("https://i.ytimg.com/vi/" + i + "/hqdefault.jpg");
+        post.setPlatform(i % 2 == 0 ? "reddit" : "youtube");
+        post.setTimestamp(Instant.ofEpochSecond(1_700_000_000L + i));
+        post.setFetchedAt(Instant.ofEpochSecond(1_700_100_000L + i));
+        return post;
+    }
+
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
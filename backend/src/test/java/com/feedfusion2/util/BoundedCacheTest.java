@@ -0,0 +1,30 @@
+package com.feedfusion2.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedCacheTest {
+
+    @Test
+    void insertIntoFullCacheDropsATenthFirst() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(20);
+        IntStream.range(0, 20).forEach(i -> cache.put(i, "v" + i));
+        assertThat(cache.size()).isEqualTo(20);
+
+        cache.put(100, "new");
+        assertThat(cache.size()).isEqualTo(19);
+        assertThat(cache.get(100)).isEqualTo("new");
+    }
+
+    @Test
+    void replacingAnEntryOfAFullCacheEvictsNothing() {
+        BoundedCache<Integer, String> cache = new BoundedCache<>(3);
+        IntStream.range(0, 3).forEach(i -> cache.put(i, "v" + i));
+        cache.compute(1, (key, value) -> value + "!");
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.get(1)).isEqualTo("v1!");
+    }
+}
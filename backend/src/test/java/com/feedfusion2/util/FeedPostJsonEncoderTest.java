@@ -0,0 +1,85 @@
+package com.feedfusion2.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.feedfusion2.model.FeedPost;
+import com.feedfusion2.service.FeedPostJsonCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeedPostJsonEncoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final FeedPostJsonCache cache = new FeedPostJsonCache(objectMapper, new SimpleMeterRegistry(), 100);
+    private final FeedPostJsonEncoder encoder = new FeedPostJsonEncoder(cache);
+    private final List<FeedPost> posts = List.of(post("1", "First"), post("2", "Second \"quoted\""));
+
+    FeedPostJsonEncoderTest() {
+        ReflectionTestUtils.setField(cache, "enabled", true);
+    }
+
+    @Test
+    void listIsEncodedExactlyLikeJackson() throws Exception {
+        ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, FeedPost.class);
+        assertThat(encoder.canEncode(listType, MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(encoder.canEncode(ResolvableType.forClass(Map.class), MediaType.APPLICATION_JSON)).isFalse();
+
+        DataBuffer buffer = encoder.encodeValue(posts, DefaultDataBufferFactory.sharedInstance, listType, MediaType.APPLICATION_JSON, Map.of());
+        assertThat(buffer.toString(StandardCharsets.UTF_8)).isEqualTo(objectMapper.writeValueAsString(posts));
+    }
+
+    @Test
+    void fluxIsEncodedAsArrayOrNdjson() throws Exception {
+        ResolvableType postType = ResolvableType.forClass(FeedPost.class);
+        assertThat(encode(Flux.fromIterable(posts), postType, MediaType.APPLICATION_JSON)).isEqualTo(objectMapper.writeValueAsString(posts));
+        assertThat(encode(Flux.empty(), postType, MediaType.APPLICATION_JSON)).isEqualTo("[]");
+        assertThat(encode(Flux.fromIterable(posts), postType, MediaType.APPLICATION_NDJSON))
+                .isEqualTo(objectMapper.writeValueAsString(posts.get(0)) + "\n" + objectMapper.writeValueAsString(posts.get(1)) + "\n");
+    }
+
+    @Test
+    void jsonCachedFromAPostLoadedBeforeAnUpdateIsNotServedForTheUpdatedPost() throws Exception {
+        FeedPost loadedBefore = post("3", "Counted");
+        loadedBefore.setScore(10L);
+        FeedPost loadedAfter = post("3", "Counted");
+        loadedAfter.setScore(25L);
+
+        cache.invalidate("3"); // The update, before the slow reader gets to encode its copy
+        cache.get(loadedBefore);
+
+        assertThat(new String(cache.get(loadedAfter), StandardCharsets.UTF_8)).isEqualTo(objectMapper.writeValueAsString(loadedAfter));
+    }
+
+    private String encode(Flux<FeedPost> input, ResolvableType type, MediaType mediaType) {
+        return encoder.encode(input, DefaultDataBufferFactory.sharedInstance, type, mediaType, Map.of())
+                .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+                .collect(Collectors.joining())
+                .block();
+    }
+
+    private static FeedPost post(String id, String title) {
+        FeedPost post = new FeedPost();
+        post.setId(id);
+        post.setTitle(title);
+        post.setPlatform("reddit");
+        post.setTimestamp(Instant.parse("2024-05-01T10:15:30Z"));
+        return post;
+    }
+}
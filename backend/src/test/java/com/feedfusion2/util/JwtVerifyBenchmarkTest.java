@@ -0,0 +1,110 @@
+package com.feedfusion2.util;
+
+import com.feedfusion2.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Correctness of JwtUtil.verify, its cache and the claims principal, and single-thread (per core) verification
+ * throughput with and without the cache. Throughput is printed, not asserted, and only measured with
+ * -Dbenchmark=true.
+ */
+class JwtVerifyBenchmarkTest {
+
+    private static final String SECRET = "0adae801734c19655878cc8cd22098e7d0ec198535a30bdbf55505a770d256a7d266eb9efc14524f939591cd63ca7345cf9f77d841833e97cf090e2896c4f99e";
+    private static final int ITERATIONS = 20_000;
+
+    @Test
+    void verifiesOnceAndRejectsTamperedTokens() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 100);
+        String token = jwtUtil.generateTokenFromUsername("alice");
+
+        assertThat(jwtUtil.verify(token).getSubject()).isEqualTo("alice");
+        assertThat(jwtUtil.verify(token).getSubject()).isEqualTo("alice"); // Cached
+        assertThat(jwtUtil.verify(token.substring(0, token.length() - 2) + "xx")).isNull();
+        assertThat(jwtUtil.verify("not.a.token")).isNull();
+    }
+
+    @Test
+    void userTokensDescribeThePrincipalWithoutALookup() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000, 100);
+        User user = new User("alice", "alice@example.com", "hash");
+        user.setId("65f000000000000000000001");
+
+        JwtUserPrincipal principal = jwtUtil.getPrincipal(jwtUtil.verify(jwtUtil.generateTokenFromUser(user)));
+        assertThat(principal.getId()).isEqualTo("65f000000000000000000001");
+        assertThat(principal.getUsername()).isEqualTo("alice");
+        assertThat(principal.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_USER");
+
+        assertThat(jwtUtil.getPrincipal(jwtUtil.verify(jwtUtil.generateTokenFromUsername("alice")))).isNull(); // Needs the lookup
+    }
+
+    @Test
+    void cachedTokensStopVerifyingWhenTheyExpire() {
+        MovableClock clock = new MovableClock(Instant.parse("2024-05-01T12:00:00Z"));
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 2_000, 100, clock);
+        String token = jwtUtil.generateTokenFromUsername("alice");
+        assertThat(jwtUtil.verify(token)).isNotNull();
+
+        clock.advance(Duration.ofSeconds(3));
+        assertThat(jwtUtil.verify(token)).isNull(); // Cached claims
+        assertThat(new JwtUtil(SECRET, 2_000, 100, clock).verify(token)).isNull(); // Parsed
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void throughputPerCore() {
+        String token = new JwtUtil(SECRET, 60_000, 0).generateTokenFromUsername("alice");
+        System.out.printf("JWT verify, one thread: %.0f tokens/s parsed, %.0f tokens/s cached%n",
+                tokensPerSecond(new JwtUtil(SECRET, 60_000, 0)::verify, token),
+                tokensPerSecond(new JwtUtil(SECRET, 60_000, 100)::verify, token));
+    }
+
+    private static double tokensPerSecond(Function<String, Object> verify, String token) {
+        for (int i = 0; i < ITERATIONS / 4; i++) {
+            verify.apply(token); // Warm-up
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            verify.apply(token);
+        }
+        return ITERATIONS / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static final class MovableClock extends Clock {
+        private Instant now;
+
+        private MovableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.feedfusion2.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MinHashTest {
+
+    @Test
+    void sameStoryWithSmallEditsIsSimilarAndOtherStoriesAreNot() {
+        List<Integer> reddit = MinHash.of("SpaceX Starship completes first full orbital flight and splashdown", "Discussion thread");
+        List<Integer> youtube = MinHash.of("SpaceX Starship completes first orbital flight & splashdown - LIVE", "Watch the replay");
+        List<Integer> other = MinHash.of("Rust 1.80 released with lazy cell and exclusive ranges", "Release notes");
+
+        assertThat(MinHash.similarity(reddit, youtube)).isGreaterThanOrEqualTo(0.6); // Jaccard 7/10
+        assertThat(MinHash.similarity(reddit, other)).isLessThan(0.3);
+        assertThat(MinHash.of("!!", null)).isNull();
+    }
+}
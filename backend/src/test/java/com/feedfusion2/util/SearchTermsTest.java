@@ -0,0 +1,29 @@
+package com.feedfusion2.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchTermsTest {
+
+    @Test
+    void tokenizesTitleAndDescriptionIntoDistinctLowerCaseTerms() {
+        assertThat(SearchTerms.of("Spring Boot 3.2: What's new?", "New in Spring - WebFlux & R2DBC"))
+                .containsExactly("spring", "boot", "what", "new", "in", "webflux", "r2dbc");
+    }
+
+    @Test
+    void wordEndingInStarBecomesPrefixTerm() {
+        SearchTerms.Parsed parsed = SearchTerms.parse("  Kubernetes  oper* ");
+        assertThat(parsed.getExact()).containsExactly("kubernetes");
+        assertThat(parsed.getPrefixes()).containsExactly("oper");
+        assertThat(SearchTerms.parse("?! *").isEmpty()).isTrue();
+    }
+
+    @Test
+    void wordWithTooShortRunsIsKeptAsLiteral() {
+        SearchTerms.Parsed parsed = SearchTerms.parse("C++ node.js 3.2");
+        assertThat(parsed.getExact()).containsExactly("node", "js");
+        assertThat(parsed.getLiterals()).containsExactly("C++", "3.2");
+    }
+}
@@ -0,0 +1,26 @@
+package com.feedfusion2.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopKTest {
+
+    @Test
+    void keepsTheGreatestElementsGreatestFirst() {
+        TopK<Integer> top = new TopK<>(3, Comparator.naturalOrder());
+        List.of(5, 1, 9, 3, 7, 9, 2).forEach(top::offer);
+        assertThat(top.toList()).containsExactly(9, 9, 7);
+    }
+
+    @Test
+    void holdsEverythingWhenFewerThanK() {
+        TopK<Integer> top = new TopK<>(10, Comparator.naturalOrder());
+        IntStream.of(2, 1, 3).forEach(top::offer);
+        assertThat(top.toList()).containsExactly(3, 2, 1);
+    }
+}
@@ -75,6 +75,64 @@ export const getFeed = async (params = {}) => {
  };
 
 
+/**
+ * Fetches one page of the feed, for infinite scroll.
+ * Pass the returned nextCursor back as params.cursor to load the following page.
+ * @param {object} params - Same filters as getFeed, plus optional limit and cursor.
+ * @returns {Promise<{posts: Array, nextCursor: (string|null)}>} - nextCursor is null on the last page.
+ */
+export const getFeedPage = async (params = {}) => {
+    try {
+        const response = await apiClient.get('/feed', { params });
+        return {
+            posts: response.data || [],
+            nextCursor: response.headers['x-next-cursor'] || null, // Exposed via CORS by the backend
+        };
+    } catch (error) {
+        console.error('API Get Feed Page error:', error.response?.data || error.message, error.response?.status);
+        throw new Error(error.response?.data?.message || error.message || 'Failed to fetch feed page');
+    }
+};
+
+
+/**
+ * Streams the feed as newline-delimited JSON, calling onPost for each post as it arrives,
+ * so the first screen can render before the rest of the feed is read.
+ * Uses fetch because axios does not expose the response stream in the browser.
+ * @param {object} params - Same filters as getFeed.
+ * @param {function} onPost - Called with each FeedPost object.
+ * @returns {Promise<void>} - Resolves when the stream ends.
+ */
+export const streamFeed = async (params = {}, onPost) => {
+    const query = new URLSearchParams(Object.entries(params).filter(([, value]) => value != null && value !== ''));
+    const response = await fetch(`${API_BASE_URL}/feed/stream?${query}`, {
+        headers: {
+            Accept: 'application/x-ndjson',
+            Authorization: apiClient.defaults.headers.common['Authorization'] || '',
+        },
+    });
+    if (!response.ok) {
+        throw new Error(`Failed to stream feed (${response.status})`);
+    }
+    const reader = response.body.getReader();
+    const decoder = new TextDecoder();
+    let buffered = '';
+    for (;;) {
+        const { done, value } = await reader.read();
+        buffered += decoder.decode(value || new Uint8Array(), { stream: !done });
+        const lines = buffered.split('\n');
+        buffered = lines.pop(); // Keep the incomplete last line for the next chunk
+        lines.filter(line => line.trim()).forEach(line => onPost(JSON.parse(line)));
+        if (done) {
+            if (buffered.trim()) {
+                onPost(JSON.parse(buffered));
+            }
+            return;
+        }
+    }
+};
+
+
 // === Bookmark API Calls ===
 
 /**